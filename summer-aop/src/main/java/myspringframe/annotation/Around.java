@@ -2,7 +2,7 @@ package myspringframe.annotation;
 
 import java.lang.annotation.*;
 
-@Target(ElementType.TYPE)
+@Target({ ElementType.TYPE, ElementType.METHOD })
 @Retention(RetentionPolicy.RUNTIME)
 @Inherited
 @Documented
@@ -10,4 +10,6 @@ public @interface Around
 {
     String value();
 
+    // 为空时拦截所有方法，语法见Pointcut:
+    String pointcut() default "";
 }
@@ -0,0 +1,19 @@
+package myspringframe.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 在线程池中异步执行public方法，标注在类上时对所有public方法生效。
+ * 方法只能返回void、Future、CompletableFuture或CompletionStage。
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Async {
+
+    /**
+     * 执行方法的Executor Bean名称，为空时使用名为taskExecutor的Bean，不存在时使用默认线程池。
+     */
+    String value() default "";
+
+}
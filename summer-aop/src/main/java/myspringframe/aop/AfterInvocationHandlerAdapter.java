@@ -1,14 +1,13 @@
 package myspringframe.aop;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
-public abstract class AfterInvocationHandlerAdapter implements InvocationHandler {
+public abstract class AfterInvocationHandlerAdapter implements MethodInterceptor {
     public abstract Object after(Object proxy, Object returnValue, Method method, Object[] args);
 
     @Override
-    public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        Object ret = method.invoke(proxy, args);
-        return after(proxy, ret, method, args);
+    public final Object invoke(MethodInvocation invocation) throws Throwable {
+        Object ret = invocation.proceed();
+        return after(invocation.getThis(), ret, invocation.getMethod(), invocation.getArguments());
     }
 }
@@ -1,5 +1,8 @@
 package myspringframe.aop;
 
+import myspringframe.Utils.ClassUtils;
+import myspringframe.Utils.MergedAnnotation;
+import myspringframe.annotation.Order;
 import myspringframe.context.ApplicationContextUtils;
 import myspringframe.context.BeanDefinition;
 import myspringframe.context.BeanPostProcessor;
@@ -9,13 +12,21 @@ import myspringframe.exception.BeansException;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> implements BeanPostProcessor {
-    Map<String, Object> originBeans = new HashMap<>();
+    static final Map<String, Pointcut> POINTCUTS = new ConcurrentHashMap<>();
+
+    // 只记录单例，非单例的原始Bean从代理实例本身取得:
+    Map<String, Object> originBeans = new ConcurrentHashMap<>();
     Class<A> annotationClass;
 
     public AnnotationProxyBeanPostProcessor() {
@@ -44,46 +55,207 @@ public abstract class AnnotationProxyBeanPostProcessor<A extends Annotation> imp
 
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        // 其他处理器已创建拦截器代理时，合并到原始Bean的拦截器链，每个Bean只保留一层代理:
+        Map<Method, MethodInterceptor[]> existing = ProxyResolver.getInstance().getInterceptorChains(bean);
+        Object target = existing == null ? bean : ((ProxyObject) bean).$$getTarget();
+        Map<Method, MethodInterceptor> interceptors = resolveInterceptors(target, beanName);
+        if (interceptors == null || interceptors.isEmpty()) {
+            return bean;
+        }
+        // 只代理匹配的方法，每个方法的拦截器链在创建代理时确定:
+        Map<Method, MethodInterceptor[]> chains = existing == null ? new HashMap<>() : existing;
+        interceptors.forEach((m, interceptor) -> chains.merge(m, new MethodInterceptor[] { interceptor }, AnnotationProxyBeanPostProcessor::mergeChain));
+        Object proxy = ProxyResolver.getInstance().createProxy(target, chains);
+        if (isSingleton(beanName)) {
+            originBeans.put(beanName, target);
+        }
+        return proxy;
+    }
+
+    // 按@Order稳定排序，order相同时先添加的在外层:
+    static MethodInterceptor[] mergeChain(MethodInterceptor[] chain, MethodInterceptor[] added) {
+        MethodInterceptor[] merged = Arrays.copyOf(chain, chain.length + added.length);
+        System.arraycopy(added, 0, merged, chain.length, added.length);
+        Arrays.sort(merged, Comparator.comparingInt(AnnotationProxyBeanPostProcessor::getOrder));
+        return merged;
+    }
+
+    /**
+     * 拦截器或InvocationHandler类上的@Order，没有时排在最后。
+     */
+    static int getOrder(MethodInterceptor interceptor) {
+        Object source = interceptor instanceof InvocationHandlerInterceptor ? ((InvocationHandlerInterceptor) interceptor).handler : interceptor;
+        Order order = ClassUtils.findAnnotation(source.getClass(), Order.class);
+        return order == null ? Integer.MAX_VALUE : order.value();
+    }
+
+    /**
+     * 返回需要拦截的方法及其拦截器，返回null或空Map时不创建代理。
+     * 默认按方法上或类上注解的value()查找handler Bean，注解的pointcut()不为空时只拦截匹配的方法。
+     */
+    protected Map<Method, MethodInterceptor> resolveInterceptors(Object bean, String beanName) {
         Class<?> beanClass = bean.getClass();
-        A annotaion = beanClass.getAnnotation(annotationClass);
-        if (annotaion != null){
-            String handlerName;
-            try{
-                handlerName = (String) annotaion.annotationType().getMethod("value").invoke(annotaion);
-            }catch (ReflectiveOperationException e) {
-                throw new AopConfigException(String.format("@%s must have value() returned String type.", this.annotationClass.getSimpleName()), e);
+        MergedAnnotation<A> classAnnotation = ClassUtils.findMergedAnnotation(beanClass, annotationClass);
+        Map<String, MethodInterceptor> handlers = new HashMap<>();
+        Map<Method, MethodInterceptor> interceptors = new HashMap<>();
+        for (Method m : beanClass.getMethods()) {
+            A methodAnnotation = m.getAnnotation(annotationClass);
+            Object handlerName;
+            Object pointcut;
+            if (methodAnnotation != null) {
+                if (!ProxyResolver.isInterceptable(m)) {
+                    throw new AopConfigException(String.format("@%s method %s.%s must be public, non-static and non-final.",
+                            this.annotationClass.getSimpleName(), beanClass.getName(), m.getName()));
+                }
+                handlerName = getAttribute(methodAnnotation, "value");
+                pointcut = getAttribute(methodAnnotation, "pointcut");
+            } else if (classAnnotation != null && ProxyResolver.isInterceptable(m) && !ProxyResolver.isObjectMethod(m)) {
+                handlerName = classAnnotation.getAttribute("value");
+                pointcut = classAnnotation.getAttribute("pointcut");
+            } else {
+                continue;
+            }
+            if (pointcut instanceof String && !getPointcut((String) pointcut).matches(beanClass, m)) {
+                continue;
+            }
+            if (!(handlerName instanceof String)) {
+                throw new AopConfigException(String.format("@%s must have value() returned String type.", this.annotationClass.getSimpleName()));
             }
-            Object proxy = createProxy(beanClass,bean,handlerName);
-            originBeans.put(beanName, bean);
-            return proxy;
+            MethodInterceptor interceptor = handlers.get(handlerName);
+            if (interceptor == null) {
+                interceptor = toMethodInterceptor((String) handlerName, getHandlerBean((String) handlerName));
+                handlers.put((String) handlerName, interceptor);
+            }
+            interceptors.put(m, interceptor);
+        }
+        return interceptors;
+    }
+
+    MethodInterceptor toMethodInterceptor(String handlerName, Object handlerBean) {
+        if (handlerBean instanceof MethodInterceptor) {
+            return (MethodInterceptor) handlerBean;
+        }
+        if (handlerBean instanceof InvocationHandler) {
+            return new InvocationHandlerInterceptor((InvocationHandler) handlerBean);
+        }
+        throw new AopConfigException(String.format("@%s proxy handler '%s' is not type of %s or %s.", this.annotationClass.getSimpleName(), handlerName,
+                MethodInterceptor.class.getName(), InvocationHandler.class.getName()));
+    }
+
+    // 同一表达式只解析一次:
+    static Pointcut getPointcut(String expression) {
+        return POINTCUTS.computeIfAbsent(expression, Pointcut::parse);
+    }
+
+    static Object getAttribute(Annotation annotation, String name) {
+        try {
+            return annotation.annotationType().getMethod(name).invoke(annotation);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new AopConfigException("Cannot get annotation value.", e);
         }
-        return bean;
     }
 
-    Object createProxy(Class<?> clazz,Object bean,String handlerName){
+    boolean isSingleton(String beanName) {
+        BeanDefinition def = ((ConfigurableApplicationContext) ApplicationContextUtils.getRequiredApplicationContext()).findBeanDefinition(beanName);
+        return def == null || def.isSingleton();
+    }
+
+    /**
+     * 按名称返回handler Bean，尚未创建时立即创建。
+     */
+    protected Object getHandlerBean(String handlerName) {
         ConfigurableApplicationContext ctx = (ConfigurableApplicationContext) ApplicationContextUtils.getRequiredApplicationContext();
         BeanDefinition def = ctx.findBeanDefinition(handlerName);
         if (def == null) {
             throw new AopConfigException(String.format("@%s proxy handler '%s' not found.", this.annotationClass.getSimpleName(), handlerName));
         }
         Object handlerBean = def.getInstance();
-        if (handlerBean == null) {
+        if (def.isLazy()) {
+            handlerBean = ctx.getBean(handlerName);
+        } else if (handlerBean == null) {
             handlerBean = ctx.createBeanAsEarlySingleton(def);
         }
-        ProxyResolver proxyResolver = ProxyResolver.getInstance();
-        if (handlerBean instanceof InvocationHandler) {
-            InvocationHandler handler = (InvocationHandler) handlerBean;
-            return ProxyResolver.getInstance().createProxy(bean, handler);
-        }else {
-            throw new AopConfigException(String.format("@%s proxy handler '%s' is not type of %s.", this.annotationClass.getSimpleName(), handlerName,
-                    InvocationHandler.class.getName()));
-        }
+        return handlerBean;
     }
 
     @Override
     public Object postProcessOnSetProperty(Object bean, String beanName) {
-        Object origin = this.originBeans.get(beanName);
-        return origin != null ? origin : bean;
+        Object origin = bean;
+        if (!(bean instanceof ProxyObject)) {
+            // 被其他处理器再次包装的单例按名称找回原始Bean:
+            Object singleton = this.originBeans.get(beanName);
+            if (singleton != null) {
+                origin = singleton;
+            }
+        }
+        // 代理可能有多层，一直展开到原始Bean:
+        for (Object target; origin instanceof ProxyObject && (target = ((ProxyObject) origin).$$getTarget()) != null; ) {
+            origin = target;
+        }
+        return origin;
+    }
+
+    /**
+     * 将InvocationHandler适配为拦截器。handler收到的对象是目标类的转发代理，
+     * handler对它调用当前方法(如method.invoke(proxy, args))时继续执行拦截器链，链中位于其后的拦截器不会被跳过。
+     */
+    static class InvocationHandlerInterceptor implements MethodInterceptor {
+        final InvocationHandler handler;
+        // 当前线程中正在由handler处理的调用:
+        final ThreadLocal<MethodInvocation> current = new ThreadLocal<>();
+        // 每个原始Bean各自创建适配器，转发代理在首次调用时创建:
+        volatile Object target;
+        volatile Object forwarder;
+
+        InvocationHandlerInterceptor(InvocationHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MethodInvocation previous = this.current.get();
+            this.current.set(invocation);
+            try {
+                return this.handler.invoke(getForwarder(invocation.getThis()), invocation.getMethod(), invocation.getArguments());
+            } finally {
+                if (previous == null) {
+                    this.current.remove();
+                } else {
+                    this.current.set(previous);
+                }
+            }
+        }
+
+        // 当前JVM无法创建转发代理时直接交给原始Bean:
+        Object getForwarder(Object target) {
+            Object forwarder = this.forwarder;
+            if (forwarder == null) {
+                this.target = target;
+                forwarder = ProxyResolver.getInstance().createProxy(target.getClass(), (proxy, method, args) -> forward(method, args));
+                this.forwarder = forwarder != null ? forwarder : target;
+            }
+            return forwarder != null ? forwarder : target;
+        }
+
+        Object forward(Method method, Object[] args) throws Throwable {
+            MethodInvocation invocation = this.current.get();
+            if (invocation != null && invocation.getMethod().equals(method)) {
+                // handler可能传入了替换后的参数:
+                Object[] arguments = invocation.getArguments();
+                if (args != null && args != arguments && arguments != null && args.length == arguments.length) {
+                    System.arraycopy(args, 0, arguments, 0, args.length);
+                }
+                return invocation.proceed();
+            }
+            // 其他方法或在其他线程中调用时直接调用原始Bean:
+            try {
+                return method.invoke(this.target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
     }
 
 
@@ -0,0 +1,151 @@
+package myspringframe.aop;
+
+import myspringframe.annotation.Async;
+import myspringframe.annotation.EventListener;
+import myspringframe.context.ApplicationContextUtils;
+import myspringframe.context.ConfigurableApplicationContext;
+import myspringframe.context.ContextClosingEvent;
+import myspringframe.exception.AopConfigException;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 为标注了@Async的Bean创建代理，@Async方法提交到按名称查找的Executor Bean执行。
+ */
+public class AsyncBeanPostProcessor extends AnnotationProxyBeanPostProcessor<Async> {
+    public static final String DEFAULT_EXECUTOR_BEAN_NAME = "taskExecutor";
+    // @Async未指定Executor时使用的名称:
+    public static final String DEFAULT_EXECUTOR_NAME = "default";
+
+    // Executor名称 -> Executor，首次调用时查找:
+    final Map<String, Executor> executors = new ConcurrentHashMap<>();
+    volatile Executor defaultExecutor;
+    // 自行创建的默认线程池，容器关闭时关闭:
+    AsyncTaskExecutor ownedExecutor;
+
+    public AsyncBeanPostProcessor() {
+    }
+
+    // 没有taskExecutor Bean时使用defaultExecutor:
+    public AsyncBeanPostProcessor(Executor defaultExecutor) {
+        this.defaultExecutor = defaultExecutor;
+    }
+
+    @Override
+    protected Map<Method, MethodInterceptor> resolveInterceptors(Object bean, String beanName) {
+        Class<?> beanClass = bean.getClass();
+        Async classAsync = beanClass.getAnnotation(Async.class);
+        // 使用同一Executor的方法共享拦截器:
+        Map<String, MethodInterceptor> interceptors = new HashMap<>();
+        Map<Method, MethodInterceptor> asyncMethods = new HashMap<>();
+        for (Method m : beanClass.getMethods()) {
+            if (!ProxyResolver.isInterceptable(m)) {
+                if (m.isAnnotationPresent(Async.class) && !m.isBridge()) {
+                    throw new AopConfigException(String.format("@Async method %s.%s must be public, non-static and non-final.", beanClass.getName(), m.getName()));
+                }
+                continue;
+            }
+            Async async = m.getAnnotation(Async.class);
+            if (async == null) {
+                // 类上的@Async只对返回类型支持异步的方法生效，不包括覆写的Object方法:
+                if (classAsync == null || ProxyResolver.isObjectMethod(m) || !AsyncMethodInterceptor.isSupportedReturnType(m.getReturnType())) {
+                    continue;
+                }
+                async = classAsync;
+            }
+            if (!AsyncMethodInterceptor.isSupportedReturnType(m.getReturnType())) {
+                throw new AopConfigException(String.format("@Async method %s.%s must return void, Future, CompletableFuture or CompletionStage.",
+                        beanClass.getName(), m.getName()));
+            }
+            if (!async.value().isEmpty() && getContext().findBeanDefinition(async.value()) == null) {
+                throw new AopConfigException(String.format("@Async executor '%s' not found for method %s.%s.", async.value(), beanClass.getName(), m.getName()));
+            }
+            String executorName = async.value().isEmpty() ? DEFAULT_EXECUTOR_NAME : async.value();
+            asyncMethods.put(m, interceptors.computeIfAbsent(executorName, name -> new AsyncMethodInterceptor(name, this::getExecutor)));
+        }
+        return asyncMethods;
+    }
+
+    Executor getExecutor(String name) {
+        Executor executor = this.executors.get(name);
+        if (executor == null) {
+            // 查找Bean时可能创建其他Bean，不在computeIfAbsent中执行:
+            executor = resolveExecutor(name);
+            Executor existing = this.executors.putIfAbsent(name, executor);
+            if (existing != null) {
+                executor = existing;
+            }
+        }
+        return executor;
+    }
+
+    Executor resolveExecutor(String name) {
+        // 存在名为default的Bean时按普通Bean查找:
+        if (DEFAULT_EXECUTOR_NAME.equals(name) && getContext().findBeanDefinition(DEFAULT_EXECUTOR_NAME) == null) {
+            if (getContext().findBeanDefinition(DEFAULT_EXECUTOR_BEAN_NAME) == null) {
+                return getDefaultExecutor();
+            }
+            name = DEFAULT_EXECUTOR_BEAN_NAME;
+        }
+        Object bean = getHandlerBean(name);
+        if (!(bean instanceof Executor)) {
+            throw new AopConfigException(String.format("@Async executor '%s' is not type of %s.", name, Executor.class.getName()));
+        }
+        return (Executor) bean;
+    }
+
+    synchronized Executor getDefaultExecutor() {
+        if (this.defaultExecutor == null) {
+            int n = Runtime.getRuntime().availableProcessors();
+            this.ownedExecutor = new AsyncTaskExecutor(DEFAULT_EXECUTOR_NAME, n, n, 1024, AsyncTaskExecutor.RejectionPolicy.ABORT);
+            this.defaultExecutor = this.ownedExecutor;
+        }
+        return this.defaultExecutor;
+    }
+
+    /**
+     * 容器关闭时关闭自行创建的默认线程池，等待已提交的任务执行完毕后再销毁Bean。
+     */
+    @EventListener
+    public void onContextClosing(ContextClosingEvent event) {
+        AsyncTaskExecutor executor;
+        synchronized (this) {
+            executor = this.ownedExecutor;
+            this.ownedExecutor = null;
+        }
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        Duration timeout = event.getApplicationContext().getPropertyResolver().getProperty("${summer.context.shutdown-timeout:PT30S}", Duration.class);
+        try {
+            if (!executor.awaitTermination(timeout)) {
+                System.out.println("Async executor '" + executor.getName() + "' did not terminate in " + timeout + ".");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 返回已使用的AsyncTaskExecutor的统计，按Executor名称索引，默认线程池的名称为default。
+     */
+    public Map<String, AsyncTaskExecutor.Metrics> getExecutorMetrics() {
+        Map<String, AsyncTaskExecutor.Metrics> metrics = new HashMap<>();
+        this.executors.forEach((name, executor) -> {
+            if (executor instanceof AsyncTaskExecutor) {
+                metrics.put(name, ((AsyncTaskExecutor) executor).getMetrics());
+            }
+        });
+        return metrics;
+    }
+
+    ConfigurableApplicationContext getContext() {
+        return (ConfigurableApplicationContext) ApplicationContextUtils.getRequiredApplicationContext();
+    }
+}
@@ -0,0 +1,84 @@
+package myspringframe.aop;
+
+import myspringframe.annotation.Order;
+import myspringframe.exception.AopConfigException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * 将@Async方法提交到按名称查找的Executor执行。位于拦截器链最外层，其他拦截器在线程池中执行。
+ */
+@Order(Integer.MIN_VALUE)
+class AsyncMethodInterceptor implements MethodInterceptor {
+    final String executorName;
+    final Function<String, Executor> executorResolver;
+
+    AsyncMethodInterceptor(String executorName, Function<String, Executor> executorResolver) {
+        this.executorName = executorName;
+        this.executorResolver = executorResolver;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // 在线程池中从当前位置proceed()，使用副本，调用者线程中的invocation不受影响:
+        AsyncTask task = new AsyncTask(invocation.snapshot());
+        this.executorResolver.apply(this.executorName).execute(task);
+        return invocation.getMethod().getReturnType() == void.class ? null : task;
+    }
+
+    static boolean isSupportedReturnType(Class<?> type) {
+        return type == void.class || type == Future.class || type == CompletableFuture.class || type == CompletionStage.class;
+    }
+
+    /**
+     * 在线程池中调用方法，本身作为返回给调用者的CompletableFuture，方法返回的Future完成时随之完成。
+     */
+    static class AsyncTask extends CompletableFuture<Object> implements Runnable {
+        final MethodInvocation invocation;
+
+        AsyncTask(MethodInvocation invocation) {
+            this.invocation = invocation;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                // 已被取消:
+                return;
+            }
+            Object result;
+            try {
+                result = this.invocation.proceed();
+            } catch (Throwable e) {
+                if (this.invocation.getMethod().getReturnType() == void.class) {
+                    // 没有Future可以传递异常，交给Executor处理:
+                    throw new AopConfigException("Exception in @Async method " + this.invocation.getMethod(), e);
+                }
+                completeExceptionally(e);
+                return;
+            }
+            if (result instanceof CompletionStage) {
+                ((CompletionStage<?>) result).whenComplete((value, error) -> {
+                    if (error != null) {
+                        completeExceptionally(error);
+                    } else {
+                        complete(value);
+                    }
+                });
+            } else if (result instanceof Future) {
+                try {
+                    complete(((Future<?>) result).get());
+                } catch (Exception e) {
+                    completeExceptionally(e instanceof ExecutionException ? e.getCause() : e);
+                }
+            } else {
+                complete(result);
+            }
+        }
+    }
+}
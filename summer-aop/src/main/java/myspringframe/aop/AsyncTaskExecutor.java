@@ -0,0 +1,189 @@
+package myspringframe.aop;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界队列的线程池，队列满且线程数达到上限时按RejectionPolicy处理，并统计任务数。
+ * 可以定义为Bean供@Async按名称使用，Bean的destroyMethod应为shutdown。
+ */
+public class AsyncTaskExecutor implements Executor {
+
+    public enum RejectionPolicy {
+        // 抛出RejectedExecutionException:
+        ABORT,
+        // 在调用者线程执行:
+        CALLER_RUNS,
+        // 丢弃新任务，返回的Future被取消:
+        DISCARD,
+        // 丢弃队列中最早的任务，其Future被取消:
+        DISCARD_OLDEST
+    }
+
+    final String name;
+    final ThreadPoolExecutor pool;
+    final RejectionPolicy rejectionPolicy;
+    final LongAdder submitted = new LongAdder();
+    final LongAdder completed = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+
+    public AsyncTaskExecutor(String name, int corePoolSize, int maxPoolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        this.name = name;
+        this.rejectionPolicy = rejectionPolicy;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(corePoolSize, Math.max(corePoolSize, maxPoolSize), 60, TimeUnit.SECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, name + "-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, this::reject);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        this.submitted.increment();
+        this.pool.execute(new Task(task));
+    }
+
+    void reject(Runnable r, ThreadPoolExecutor executor) {
+        this.rejected.increment();
+        switch (this.rejectionPolicy) {
+            case CALLER_RUNS:
+                if (!executor.isShutdown()) {
+                    r.run();
+                    return;
+                }
+                break;
+            case DISCARD:
+                cancel(r);
+                return;
+            case DISCARD_OLDEST:
+                if (!executor.isShutdown()) {
+                    Runnable oldest = executor.getQueue().poll();
+                    if (oldest == null) {
+                        // 队列为空(如queueCapacity为0时的SynchronousQueue)，重新提交只会再次被拒绝，丢弃新任务:
+                        cancel(r);
+                        return;
+                    }
+                    cancel(oldest);
+                    executor.execute(r);
+                    return;
+                }
+                break;
+            default:
+        }
+        throw new RejectedExecutionException("Task rejected by executor '" + this.name + "': " + getMetrics());
+    }
+
+    // 被丢弃的任务如果同时是Future则取消，等待结果的调用者不会永远阻塞:
+    static void cancel(Runnable r) {
+        Runnable task = r instanceof Task ? ((Task) r).delegate : r;
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(this.submitted.sum(), this.completed.sum(), this.failed.sum(), this.rejected.sum(), this.pool.getActiveCount(),
+                this.pool.getQueue().size(), this.pool.getPoolSize(), this.pool.getLargestPoolSize());
+    }
+
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    // 等待已提交的任务执行完毕，超时返回false:
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        return this.pool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    class Task implements Runnable {
+        final Runnable delegate;
+
+        Task(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.delegate.run();
+                completed.increment();
+            } catch (RuntimeException | Error e) {
+                failed.increment();
+                System.out.println("Exception in async task on executor '" + name + "': " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 某一时刻的统计，failed只统计抛出异常的任务，返回Future的方法的异常由Future传递。
+     */
+    public static class Metrics {
+        final long submitted;
+        final long completed;
+        final long failed;
+        final long rejected;
+        final int active;
+        final int queued;
+        final int poolSize;
+        final int largestPoolSize;
+
+        Metrics(long submitted, long completed, long failed, long rejected, int active, int queued, int poolSize, int largestPoolSize) {
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.rejected = rejected;
+            this.active = active;
+            this.queued = queued;
+            this.poolSize = poolSize;
+            this.largestPoolSize = largestPoolSize;
+        }
+
+        public long getSubmitted() {
+            return this.submitted;
+        }
+
+        public long getCompleted() {
+            return this.completed;
+        }
+
+        public long getFailed() {
+            return this.failed;
+        }
+
+        public long getRejected() {
+            return this.rejected;
+        }
+
+        public int getActive() {
+            return this.active;
+        }
+
+        public int getQueued() {
+            return this.queued;
+        }
+
+        public int getPoolSize() {
+            return this.poolSize;
+        }
+
+        public int getLargestPoolSize() {
+            return this.largestPoolSize;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics [submitted=" + submitted + ", completed=" + completed + ", failed=" + failed + ", rejected=" + rejected + ", active="
+                    + active + ", queued=" + queued + ", poolSize=" + poolSize + ", largestPoolSize=" + largestPoolSize + "]";
+        }
+    }
+}
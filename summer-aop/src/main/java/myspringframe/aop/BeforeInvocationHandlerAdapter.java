@@ -1,14 +1,13 @@
 package myspringframe.aop;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
-public abstract class BeforeInvocationHandlerAdapter implements InvocationHandler {
+public abstract class BeforeInvocationHandlerAdapter implements MethodInterceptor {
     public abstract void before(Object proxy, Method method, Object[] args);
 
     @Override
-    public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        before(proxy, method, args);
-        return method.invoke(proxy, args);
+    public final Object invoke(MethodInvocation invocation) throws Throwable {
+        before(invocation.getThis(), invocation.getMethod(), invocation.getArguments());
+        return invocation.proceed();
     }
 }
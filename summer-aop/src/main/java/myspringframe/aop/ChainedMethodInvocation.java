@@ -0,0 +1,57 @@
+package myspringframe.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 依次调用拦截器链，链的末端直接调用原始Bean。
+ */
+class ChainedMethodInvocation implements MethodInvocation {
+    final Object target;
+    final Method method;
+    final Object[] args;
+    final ProxyResolver.Forwarder forwarder;
+    final MethodInterceptor[] chain;
+    int index;
+
+    ChainedMethodInvocation(Object target, Method method, Object[] args, ProxyResolver.Forwarder forwarder, MethodInterceptor[] chain) {
+        this.target = target;
+        this.method = method;
+        this.args = args;
+        this.forwarder = forwarder;
+        this.chain = chain;
+    }
+
+    static Object invoke(Object target, Method method, Object[] args, ProxyResolver.Forwarder forwarder, MethodInterceptor[] chain) throws Throwable {
+        return new ChainedMethodInvocation(target, method, args, forwarder, chain).proceed();
+    }
+
+    @Override
+    public Object getThis() {
+        return this.target;
+    }
+
+    @Override
+    public Method getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return this.args;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        if (this.index < this.chain.length) {
+            return this.chain[this.index++].invoke(this);
+        }
+        return this.forwarder.to(this.target);
+    }
+
+    @Override
+    public MethodInvocation snapshot() {
+        ChainedMethodInvocation copy = new ChainedMethodInvocation(this.target, this.method, this.args, this.forwarder, this.chain);
+        copy.index = this.index;
+        return copy;
+    }
+}
@@ -0,0 +1,50 @@
+package myspringframe.aop;
+
+import myspringframe.context.LazyProxyFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * 用ProxyResolver为延迟初始化的Bean创建代理，首次调用方法时创建Bean并转发调用。
+ */
+public class LazyResolutionProxyFactory implements LazyProxyFactory {
+
+    @Override
+    public Object createLazyProxy(Class<?> type, Supplier<?> targetSupplier) {
+        if (!isProxyable(type)) {
+            return null;
+        }
+        // 无法跳过构造方法时返回null，由容器立即初始化Bean:
+        return ProxyResolver.getInstance().createProxy(type, (proxy, method, args) -> invoke(targetSupplier.get(), method, args));
+    }
+
+    Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // 代理类在另一个ClassLoader中生成，只能代理public、非final且有无参数构造方法的类型(创建代理时不执行该构造方法):
+    boolean isProxyable(Class<?> type) {
+        int mod = type.getModifiers();
+        if (type.isPrimitive() || type.isArray() || !Modifier.isPublic(mod) || Modifier.isFinal(mod)) {
+            return false;
+        }
+        if (type.isInterface()) {
+            return true;
+        }
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            int cmod = constructor.getModifiers();
+            if (constructor.getParameterCount() == 0 && (Modifier.isPublic(cmod) || Modifier.isProtected(cmod))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
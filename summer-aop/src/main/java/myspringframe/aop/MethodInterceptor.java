@@ -0,0 +1,8 @@
+package myspringframe.aop;
+
+/**
+ * 代理方法的拦截器，通过MethodInvocation.proceed()直接调用原始Bean的方法，不经过反射。
+ */
+public interface MethodInterceptor {
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
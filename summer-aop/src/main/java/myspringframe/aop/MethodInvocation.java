@@ -0,0 +1,27 @@
+package myspringframe.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 一次代理方法调用。
+ */
+public interface MethodInvocation {
+    /**
+     * 返回原始Bean。
+     */
+    Object getThis();
+
+    Method getMethod();
+
+    Object[] getArguments();
+
+    /**
+     * 以原始参数调用原始Bean的方法，异常原样抛出。
+     */
+    Object proceed() throws Throwable;
+
+    /**
+     * 复制当前调用位置，在其他线程中proceed()时使用，副本与原调用互不影响拦截器链的推进。
+     */
+    MethodInvocation snapshot();
+}
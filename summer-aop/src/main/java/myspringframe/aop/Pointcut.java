@@ -0,0 +1,36 @@
+package myspringframe.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 按目标类和方法匹配需要拦截的方法，表达式示例：
+ * <pre>
+ * package(com.example.service*) &amp;&amp; (method(get*) || @annotation(com.example.Audit)) &amp;&amp; !type(*Helper)
+ * </pre>
+ * package()、type()、method()中可用*匹配任意字符，type()中不含.时只匹配简单类名，@annotation()中不含.时只匹配注解的简单类名。
+ */
+@FunctionalInterface
+public interface Pointcut {
+    Pointcut ALL = (targetClass, method) -> true;
+
+    boolean matches(Class<?> targetClass, Method method);
+
+    default Pointcut and(Pointcut other) {
+        return (targetClass, method) -> matches(targetClass, method) && other.matches(targetClass, method);
+    }
+
+    default Pointcut or(Pointcut other) {
+        return (targetClass, method) -> matches(targetClass, method) || other.matches(targetClass, method);
+    }
+
+    default Pointcut negate() {
+        return (targetClass, method) -> !matches(targetClass, method);
+    }
+
+    /**
+     * 解析表达式，空表达式匹配所有方法，语法错误时抛出AopConfigException。
+     */
+    static Pointcut parse(String expression) {
+        return expression.trim().isEmpty() ? ALL : new PointcutParser(expression).parse();
+    }
+}
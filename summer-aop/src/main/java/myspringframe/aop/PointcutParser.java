@@ -0,0 +1,154 @@
+package myspringframe.aop;
+
+import myspringframe.exception.AopConfigException;
+
+import java.lang.annotation.Annotation;
+import java.util.regex.Pattern;
+
+/**
+ * 解析Pointcut表达式：
+ * <pre>
+ * expr    := and ('||' and)*
+ * and     := unary ('&amp;&amp;' unary)*
+ * unary   := '!' unary | '(' expr ')' | primary
+ * primary := ('package' | 'type' | 'method' | '@annotation') '(' pattern ')'
+ * </pre>
+ */
+class PointcutParser {
+    final String expression;
+    int pos;
+
+    PointcutParser(String expression) {
+        this.expression = expression;
+    }
+
+    Pointcut parse() {
+        Pointcut pointcut = parseOr();
+        skipWhitespace();
+        if (this.pos < this.expression.length()) {
+            throw error("unexpected '" + this.expression.charAt(this.pos) + "'");
+        }
+        return pointcut;
+    }
+
+    Pointcut parseOr() {
+        Pointcut pointcut = parseAnd();
+        while (accept("||")) {
+            pointcut = pointcut.or(parseAnd());
+        }
+        return pointcut;
+    }
+
+    Pointcut parseAnd() {
+        Pointcut pointcut = parseUnary();
+        while (accept("&&")) {
+            pointcut = pointcut.and(parseUnary());
+        }
+        return pointcut;
+    }
+
+    Pointcut parseUnary() {
+        if (accept("!")) {
+            return parseUnary().negate();
+        }
+        if (accept("(")) {
+            Pointcut pointcut = parseOr();
+            expect(")");
+            return pointcut;
+        }
+        return parsePrimary();
+    }
+
+    Pointcut parsePrimary() {
+        if (accept("package")) {
+            Pattern pattern = toPattern(parseArgument());
+            return (targetClass, method) -> pattern.matcher(getPackageName(targetClass)).matches();
+        }
+        if (accept("type")) {
+            String glob = parseArgument();
+            Pattern pattern = toPattern(glob);
+            boolean qualified = glob.indexOf('.') >= 0;
+            return (targetClass, method) -> pattern.matcher(qualified ? targetClass.getName() : targetClass.getSimpleName()).matches();
+        }
+        if (accept("method")) {
+            Pattern pattern = toPattern(parseArgument());
+            return (targetClass, method) -> pattern.matcher(method.getName()).matches();
+        }
+        if (accept("@annotation")) {
+            String name = parseArgument();
+            boolean qualified = name.indexOf('.') >= 0;
+            return (targetClass, method) -> {
+                for (Annotation anno : method.getAnnotations()) {
+                    Class<?> type = anno.annotationType();
+                    if (name.equals(qualified ? type.getName() : type.getSimpleName())) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        throw error("expected package(), type(), method() or @annotation()");
+    }
+
+    String parseArgument() {
+        expect("(");
+        int end = this.expression.indexOf(')', this.pos);
+        if (end < 0) {
+            throw error("missing ')'");
+        }
+        String arg = this.expression.substring(this.pos, end).trim();
+        if (arg.isEmpty()) {
+            throw error("empty pattern");
+        }
+        this.pos = end + 1;
+        return arg;
+    }
+
+    boolean accept(String token) {
+        skipWhitespace();
+        if (this.expression.startsWith(token, this.pos)) {
+            this.pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    void expect(String token) {
+        if (!accept(token)) {
+            throw error("expected '" + token + "'");
+        }
+    }
+
+    void skipWhitespace() {
+        while (this.pos < this.expression.length() && Character.isWhitespace(this.expression.charAt(this.pos))) {
+            this.pos++;
+        }
+    }
+
+    AopConfigException error(String message) {
+        return new AopConfigException(String.format("Invalid pointcut expression '%s' at position %d: %s.", this.expression, this.pos, message));
+    }
+
+    static String getPackageName(Class<?> clazz) {
+        String name = clazz.getName();
+        int n = name.lastIndexOf('.');
+        return n < 0 ? "" : name.substring(0, n);
+    }
+
+    // *匹配任意字符，其他字符按原样匹配:
+    static Pattern toPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int n = glob.indexOf('*'); n >= 0; n = glob.indexOf('*', start)) {
+            if (n > start) {
+                regex.append(Pattern.quote(glob.substring(start, n)));
+            }
+            regex.append(".*");
+            start = n + 1;
+        }
+        if (start < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(start)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,21 @@
+package myspringframe.aop;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * ProxyResolver生成的代理类实现的接口，目标对象、InvocationHandler和拦截器链保存在每个代理实例的字段中。
+ */
+public interface ProxyObject {
+    Object $$getTarget();
+
+    void $$setTarget(Object target);
+
+    InvocationHandler $$getHandler();
+
+    void $$setHandler(InvocationHandler handler);
+
+    // 按方法下标的拦截器链:
+    MethodInterceptor[][] $$getChains();
+
+    void $$setChains(MethodInterceptor[][] chains);
+}
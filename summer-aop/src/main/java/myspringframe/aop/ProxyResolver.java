@@ -4,57 +4,375 @@ import myspringframe.Utils.t2;
 import myspringframe.annotation.ComponentScan;
 import myspringframe.annotation.Import;
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.TypeCache;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.loading.MultipleParentClassLoader;
 import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
-import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.Origin;
+import net.bytebuddy.implementation.bind.annotation.Pipe;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.TargetMethodAnnotationDrivenBinder;
+import net.bytebuddy.implementation.bind.annotation.This;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
 import net.bytebuddy.matcher.ElementMatchers;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
 
 @ComponentScan
 @Import({t2.class})
 public class ProxyResolver
 {
-    private static ProxyResolver INSTANCE = null;
+    private static final ProxyResolver INSTANCE = new ProxyResolver();
+
+    static final String TARGET_FIELD = "$$target";
+    static final String HANDLER_FIELD = "$$handler";
+    static final String CHAINS_FIELD = "$$chains";
+    // 编译期由summer-processor生成的代理类名后缀:
+    public static final String GENERATED_SUFFIX = "$$SummerProxy";
+
+    // 目标类 -> 编译期生成的代理类，不存在时为NONE:
+    static final GeneratedProxy NONE = new GeneratedProxy(null, Collections.emptyList());
+    static final ClassValue<GeneratedProxy> GENERATED_PROXIES = new ClassValue<GeneratedProxy>() {
+        @Override
+        protected GeneratedProxy computeValue(Class<?> type) {
+            return loadGeneratedProxy(type);
+        }
+    };
+
+    final ByteBuddy byteBuddy = new ByteBuddy();
+    // 按目标类和被拦截的方法生成代理类，按目标类的ClassLoader弱引用缓存，ClassLoader被回收时一并清除，
+    // key以"H:"(InvocationHandler代理)或"C:"(拦截器链代理)开头，两种代理类不会共用缓存:
+    final TypeCache<String> proxyClasses = new TypeCache.WithInlineExpunction<>(TypeCache.Sort.WEAK);
+    // 代理类 -> 按下标排列的被拦截方法:
+    final Map<Class<?>, List<Method>> proxyMethods = Collections.synchronizedMap(new WeakHashMap<>());
 
-    ByteBuddy byteBuddy = new ByteBuddy();
     public ProxyResolver(){}
+
+    @SuppressWarnings("unchecked")
     public <T> T createProxy(T bean, InvocationHandler handler) {
+        // 将方法调用代理至原始Bean:
+        return (T) newProxy(getProxyClass(bean.getClass()), bean, handler, null);
+    }
+
+    // 拦截器通过MethodInvocation.proceed()直接调用原始Bean，不经过Method.invoke:
+    public <T> T createProxy(T bean, MethodInterceptor interceptor) {
+        Map<Method, MethodInterceptor[]> chains = new HashMap<>();
+        for (Method m : bean.getClass().getMethods()) {
+            if (isInterceptable(m)) {
+                chains.put(m, new MethodInterceptor[] { interceptor });
+            }
+        }
+        return createProxy(bean, chains);
+    }
+
+    /**
+     * 按方法指定拦截器链，其他方法由代理直接调用原始Bean。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(T bean, Map<Method, MethodInterceptor[]> chains) {
         Class<?> targetClass = bean.getClass();
-        Class<?> proxyClass = this.byteBuddy
+        GeneratedProxy generatedProxy = GENERATED_PROXIES.get(targetClass);
+        if (generatedProxy != NONE && generatedProxy.indexes.keySet().containsAll(chains.keySet())) {
+            // 编译期生成的代理类覆写了所有可拦截的方法，没有拦截器链的下标为null:
+            MethodInterceptor[][] generatedChains = new MethodInterceptor[generatedProxy.methods.size()][];
+            chains.forEach((m, chain) -> generatedChains[generatedProxy.indexes.get(m)] = chain.clone());
+            return (T) newProxy(generatedProxy.proxyClass, bean, null, generatedChains);
+        }
+        // 方法按签名排序，下标在生成代理类时固定:
+        List<Method> methods = new ArrayList<>(chains.keySet());
+        methods.sort(Comparator.comparing(ProxyResolver::getSignature));
+        StringBuilder key = new StringBuilder("C:").append(targetClass.getName());
+        MethodInterceptor[][] array = new MethodInterceptor[methods.size()][];
+        for (int i = 0; i < array.length; i++) {
+            Method m = methods.get(i);
+            key.append(';').append(getSignature(m));
+            array[i] = chains.get(m).clone();
+        }
+        Class<?> proxyClass = this.proxyClasses.findOrInsert(targetClass.getClassLoader(), key.toString(), () -> {
+            Class<?> generated = generateProxyClass(targetClass, methods);
+            this.proxyMethods.put(generated, methods);
+            return generated;
+        }, this.proxyClasses);
+        return (T) newProxy(proxyClass, bean, null, array);
+    }
+
+    /**
+     * 返回拦截器代理的每个方法的拦截器链，不是拦截器代理时返回null。
+     */
+    public Map<Method, MethodInterceptor[]> getInterceptorChains(Object proxy) {
+        List<Method> methods = this.proxyMethods.get(proxy.getClass());
+        if (methods == null || !(proxy instanceof ProxyObject)) {
+            return null;
+        }
+        MethodInterceptor[][] chains = ((ProxyObject) proxy).$$getChains();
+        Map<Method, MethodInterceptor[]> result = new HashMap<>();
+        for (int i = 0; i < chains.length; i++) {
+            if (chains[i] != null) {
+                result.put(methods.get(i), chains[i].clone());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 没有目标对象，handler收到的proxy参数为代理本身。
+     * 代理不执行目标类的构造方法，当前JVM不支持跳过构造方法时返回null。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(Class<T> targetClass, InvocationHandler handler) {
+        Class<?> proxyClass = getProxyClass(targetClass);
+        Constructor<?> constructor = SKIP_INIT_CONSTRUCTORS.get(proxyClass).orElse(null);
+        if (constructor == null) {
+            return null;
+        }
+        return (T) newProxy(constructor, null, handler, null);
+    }
+
+    Object newProxy(Class<?> proxyClass, Object target, InvocationHandler handler, MethodInterceptor[][] chains) {
+        try {
+            return newProxy(proxyClass.getConstructor(), target, handler, chains);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    Object newProxy(Constructor<?> constructor, Object target, InvocationHandler handler, MethodInterceptor[][] chains) {
+        ProxyObject proxy;
+        try {
+            proxy = (ProxyObject) constructor.newInstance();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        proxy.$$setTarget(target);
+        proxy.$$setHandler(handler);
+        proxy.$$setChains(chains);
+        return proxy;
+    }
+
+    // 代理类 -> 只调用Object构造方法的序列化构造方法，与Objenesis的做法相同:
+    static final ClassValue<Optional<Constructor<?>>> SKIP_INIT_CONSTRUCTORS = new ClassValue<Optional<Constructor<?>>>() {
+        @Override
+        protected Optional<Constructor<?>> computeValue(Class<?> type) {
+            try {
+                Class<?> factoryClass = Class.forName("sun.reflect.ReflectionFactory");
+                Object factory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+                Method newConstructor = factoryClass.getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+                return Optional.ofNullable((Constructor<?>) newConstructor.invoke(factory, type, Object.class.getDeclaredConstructor()));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    /**
+     * 返回所有public方法都由InvocationHandler处理的代理类。
+     */
+    public Class<?> getProxyClass(Class<?> targetClass) {
+        return this.proxyClasses.findOrInsert(targetClass.getClassLoader(), "H:" + targetClass.getName(), () -> generateProxyClass(targetClass, null), this.proxyClasses);
+    }
+
+    // methods为null时所有public方法由handler处理，否则methods由拦截器链处理，其他public方法直接调用原始Bean:
+    Class<?> generateProxyClass(Class<?> targetClass, List<Method> methods) {
+        DynamicType.Builder<?> builder = this.byteBuddy
                 // 子类用默认无参数构造方法:
                 .subclass(targetClass, ConstructorStrategy.Default.DEFAULT_CONSTRUCTOR)
-                // 拦截所有public方法:
-                .method(ElementMatchers.isPublic()).intercept(InvocationHandlerAdapter.of(
-                        // 新的拦截器实例:
-                        new InvocationHandler() {
-                            @Override
-                            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                                // 将方法调用代理至原始Bean:
-                                return handler.invoke(bean, method, args);
-                            }
-                        }))
+                .defineField(TARGET_FIELD, Object.class, Visibility.PRIVATE)
+                .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PRIVATE)
+                .defineField(CHAINS_FIELD, MethodInterceptor[][].class, Visibility.PRIVATE)
+                .implement(ProxyObject.class);
+        if (methods == null) {
+            builder = builder.method(ElementMatchers.isPublic()).intercept(MethodDelegation.to(HandlerDispatcher.class));
+        } else {
+            builder = builder.method(ElementMatchers.isPublic()).intercept(MethodCall.invokeSelf().onField(TARGET_FIELD).withAllArguments()
+                    .withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC));
+            for (int i = 0; i < methods.size(); i++) {
+                // 后定义的匹配优先:
+                MethodDescription.SignatureToken token = new MethodDescription.ForLoadedMethod(methods.get(i)).asSignatureToken();
+                // 继承自泛型父类的方法在子类中的参数类型已被替换，按定义时的签名匹配:
+                builder = builder.method(m -> m.asDefined().asSignatureToken().equals(token))
+                        .intercept(MethodDelegation.withDefaultConfiguration()
+                                .withBinders(Pipe.Binder.install(Forwarder.class), TargetMethodAnnotationDrivenBinder.ParameterBinder.ForFixedValue.OfConstant.of(ChainIndex.class, i))
+                                .to(InterceptorDispatcher.class));
+            }
+        }
+        return builder
+                // 读写字段的方法不拦截:
+                .method(ElementMatchers.named("$$getTarget").or(ElementMatchers.named("$$setTarget"))).intercept(FieldAccessor.ofField(TARGET_FIELD))
+                .method(ElementMatchers.named("$$getHandler").or(ElementMatchers.named("$$setHandler"))).intercept(FieldAccessor.ofField(HANDLER_FIELD))
+                .method(ElementMatchers.named("$$getChains").or(ElementMatchers.named("$$setChains"))).intercept(FieldAccessor.ofField(CHAINS_FIELD))
                 // 生成字节码:
                 .make()
                 // 加载字节码:
-                .load(targetClass.getClassLoader()).getLoaded();
-        Object proxy;
+                .load(getClassLoader(targetClass), ClassLoadingStrategy.Default.WRAPPER).getLoaded();
+    }
+
+    // 代理类需要同时访问目标类和ProxyObject:
+    static ClassLoader getClassLoader(Class<?> targetClass) {
+        ClassLoader cl = targetClass.getClassLoader();
+        if (cl != null) {
+            try {
+                if (Class.forName(ProxyObject.class.getName(), false, cl) == ProxyObject.class) {
+                    return cl;
+                }
+            } catch (ClassNotFoundException e) {
+                // 目标类的ClassLoader看不到summer-aop
+            }
+        }
+        return new MultipleParentClassLoader.Builder().appendMostSpecific(targetClass, ProxyObject.class).build();
+    }
+
+    static GeneratedProxy loadGeneratedProxy(Class<?> targetClass) {
+        if (targetClass.getClassLoader() == null) {
+            return NONE;
+        }
+        Class<?> proxyClass;
         try {
-            proxy = proxyClass.getConstructor().newInstance();
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            proxyClass = Class.forName(targetClass.getName() + GENERATED_SUFFIX, true, targetClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return NONE;
+        }
+        if (proxyClass.getSuperclass() != targetClass || !ProxyObject.class.isAssignableFrom(proxyClass)) {
+            return NONE;
+        }
+        try {
+            List<Method> methods = Arrays.asList((Method[]) proxyClass.getMethod("$$methods").invoke(null));
+            GeneratedProxy generated = new GeneratedProxy(proxyClass, methods);
+            getInstance().proxyMethods.put(proxyClass, methods);
+            return generated;
+        } catch (ReflectiveOperationException e) {
+            // 生成类与目标类不一致(如目标类修改后未重新编译)时使用运行时生成的代理类:
+            System.out.println("Ignore generated proxy class " + proxyClass.getName() + ": " + e);
+            return NONE;
         }
-        return (T) proxy;
     }
 
-    public static ProxyResolver getInstance() {
-        if (INSTANCE == null) {
-            INSTANCE = new ProxyResolver();
+    /**
+     * 供编译期生成的代理类调用拦截器链，异常原样抛出。
+     */
+    public static Object invokeChain(Object target, Method method, Object[] args, Forwarder forwarder, MethodInterceptor[] chain) {
+        try {
+            return ChainedMethodInvocation.invoke(target, method, args, forwarder, chain);
+        } catch (Throwable e) {
+            throw ProxyResolver.<RuntimeException>sneakyThrow(e);
+        }
+    }
+
+    // 生成的方法与被覆写的方法声明相同的异常，拦截器抛出的异常不需要再包装:
+    @SuppressWarnings("unchecked")
+    static <E extends Throwable> E sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    /**
+     * 可以被代理类覆写并拦截的方法，Object的方法不拦截。
+     */
+    static boolean isInterceptable(Method m) {
+        int mod = m.getModifiers();
+        return Modifier.isPublic(mod) && !Modifier.isStatic(mod) && !Modifier.isFinal(mod) && !m.isBridge() && m.getDeclaringClass() != Object.class;
+    }
+
+    /**
+     * 覆写了Object的方法(toString、hashCode、equals等)，类上的注解不拦截这些方法。
+     */
+    static boolean isObjectMethod(Method m) {
+        try {
+            Object.class.getDeclaredMethod(m.getName(), m.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    static String getSignature(Method m) {
+        StringBuilder sb = new StringBuilder(m.getName()).append('(');
+        for (Class<?> type : m.getParameterTypes()) {
+            sb.append(type.getName()).append(',');
         }
+        return sb.append(')').toString();
+    }
+
+    public static ProxyResolver getInstance() {
         return INSTANCE;
     }
 
+    static class GeneratedProxy {
+        final Class<?> proxyClass;
+        final List<Method> methods;
+        final Map<Method, Integer> indexes = new HashMap<>();
+
+        GeneratedProxy(Class<?> proxyClass, List<Method> methods) {
+            this.proxyClass = proxyClass;
+            this.methods = methods;
+            for (int i = 0; i < methods.size(); i++) {
+                this.indexes.put(methods.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * 由ByteBuddy或编译期生成的代理类为每个方法生成实现，以原始类型保存参数，to(target)直接调用target的同名方法。
+     */
+    public interface Forwarder {
+        Object to(Object target) throws Throwable;
+    }
+
+    /**
+     * 生成代理类时绑定的方法下标，对应$$chains中的拦截器链。
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface ChainIndex {
+    }
+
+    /**
+     * 从代理实例的字段读取handler和目标对象。
+     * InvocationHandler的签名要求Method和Object[]，每次调用都会分配参数数组并装箱原始类型参数。
+     */
+    public static class HandlerDispatcher {
+        @RuntimeType
+        public static Object intercept(@This Object proxy, @Origin Method method, @AllArguments Object[] args) throws Throwable {
+            ProxyObject p = (ProxyObject) proxy;
+            Object target = p.$$getTarget();
+            return p.$$getHandler().invoke(target != null ? target : proxy, method, args);
+        }
+    }
 
+    /**
+     * 按生成代理类时确定的下标取出拦截器链，链的末端直接调用原始Bean。
+     * 没有为每个方法生成带类型的调用器：MethodInvocation.getArguments()要求参数为Object[]，
+     * 因此参数仍会分配数组并装箱，直接调用只省去了链末端的Method.invoke。Method由ByteBuddy缓存在代理类的静态字段中。
+     */
+    public static class InterceptorDispatcher {
+        @RuntimeType
+        public static Object intercept(@This Object proxy, @Origin Method method, @AllArguments Object[] args, @Pipe Forwarder forwarder,
+                                       @ChainIndex int index) throws Throwable {
+            ProxyObject p = (ProxyObject) proxy;
+            return ChainedMethodInvocation.invoke(p.$$getTarget(), method, args, forwarder, p.$$getChains()[index]);
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package myspringframe.aop;
+
+import junit.framework.TestCase;
+import myspringframe.aop.async.AsyncApplication;
+import myspringframe.aop.async.MailService;
+import myspringframe.context.AnnotationConfigApplicationContext;
+import myspringframe.io.propertyresolver.PropertyResolver;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncBeanPostProcessorTest extends TestCase {
+
+    public void testAsyncMethods() throws Exception {
+        AsyncBeanPostProcessor processor;
+        AsyncTaskExecutor defaultExecutor;
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(AsyncApplication.class, new PropertyResolver(new Properties()))) {
+            MailService mail = ctx.getBean(MailService.class);
+            assertTrue(mail.send("bob").get(5, TimeUnit.SECONDS).startsWith("bob@default-"));
+            assertTrue(mail.report().get(5, TimeUnit.SECONDS).startsWith("reports-"));
+            assertEquals(Thread.currentThread().getName(), mail.name());
+            try {
+                mail.fail().get(5, TimeUnit.SECONDS);
+                fail("Expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+
+            processor = ctx.getBean(AsyncBeanPostProcessor.class);
+            Map<String, AsyncTaskExecutor.Metrics> metrics = processor.getExecutorMetrics();
+            // 默认线程池按default统计，具名Executor按Bean名称统计:
+            assertEquals(2, metrics.get(AsyncBeanPostProcessor.DEFAULT_EXECUTOR_NAME).getSubmitted());
+            assertEquals(1, metrics.get("reportExecutor").getSubmitted());
+            defaultExecutor = processor.ownedExecutor;
+            assertNotNull(defaultExecutor);
+        }
+        // 容器关闭时关闭自行创建的默认线程池:
+        assertNull(processor.ownedExecutor);
+        assertTrue(defaultExecutor.pool.isShutdown());
+    }
+}
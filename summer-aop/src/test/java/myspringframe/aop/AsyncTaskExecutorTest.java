@@ -0,0 +1,110 @@
+package myspringframe.aop;
+
+import junit.framework.TestCase;
+import myspringframe.aop.AsyncTaskExecutor.RejectionPolicy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncTaskExecutorTest extends TestCase {
+
+    CountDownLatch release;
+
+    @Override
+    protected void setUp() {
+        release = new CountDownLatch(1);
+    }
+
+    @Override
+    protected void tearDown() {
+        release.countDown();
+    }
+
+    public void testAbort() throws Exception {
+        AsyncTaskExecutor executor = busyExecutor(0, RejectionPolicy.ABORT);
+        try {
+            executor.execute(() -> {});
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            assertTrue(e.getMessage().contains("'test'"));
+        }
+        assertEquals(1, executor.getMetrics().getRejected());
+        shutdown(executor);
+    }
+
+    public void testCallerRuns() throws Exception {
+        AsyncTaskExecutor executor = busyExecutor(0, RejectionPolicy.CALLER_RUNS);
+        Thread[] ranOn = new Thread[1];
+        executor.execute(() -> ranOn[0] = Thread.currentThread());
+        assertSame(Thread.currentThread(), ranOn[0]);
+        shutdown(executor);
+    }
+
+    public void testDiscardCancelsFuture() throws Exception {
+        AsyncTaskExecutor executor = busyExecutor(0, RejectionPolicy.DISCARD);
+        FutureTask<String> discarded = new FutureTask<>(() -> "never");
+        executor.execute(discarded);
+        assertTrue(discarded.isCancelled());
+        shutdown(executor);
+    }
+
+    public void testDiscardOldestWithoutQueue() throws Exception {
+        // queueCapacity为0时没有可丢弃的排队任务，丢弃新任务而不是无限重试:
+        AsyncTaskExecutor executor = busyExecutor(0, RejectionPolicy.DISCARD_OLDEST);
+        FutureTask<String> discarded = new FutureTask<>(() -> "never");
+        executor.execute(discarded);
+        assertTrue(discarded.isCancelled());
+        assertEquals(1, executor.getMetrics().getRejected());
+        shutdown(executor);
+    }
+
+    public void testDiscardOldestReplacesQueuedTask() throws Exception {
+        AsyncTaskExecutor executor = busyExecutor(1, RejectionPolicy.DISCARD_OLDEST);
+        FutureTask<String> oldest = new FutureTask<>(() -> "oldest");
+        FutureTask<String> newest = new FutureTask<>(() -> "newest");
+        executor.execute(oldest);
+        executor.execute(newest);
+        assertTrue(oldest.isCancelled());
+        release.countDown();
+        assertEquals("newest", newest.get(5, TimeUnit.SECONDS));
+        shutdown(executor);
+    }
+
+    public void testFailedTasksCounted() throws Exception {
+        AsyncTaskExecutor executor = new AsyncTaskExecutor("test", 1, 1, 10, RejectionPolicy.ABORT);
+        executor.execute(() -> {
+            throw new IllegalStateException("task failed");
+        });
+        executor.execute(() -> {});
+        shutdown(executor);
+        AsyncTaskExecutor.Metrics metrics = executor.getMetrics();
+        assertEquals(2, metrics.getSubmitted());
+        assertEquals(1, metrics.getCompleted());
+        assertEquals(1, metrics.getFailed());
+    }
+
+    // 唯一的线程被占用，队列为空:
+    AsyncTaskExecutor busyExecutor(int queueCapacity, RejectionPolicy policy) throws InterruptedException {
+        AsyncTaskExecutor executor = new AsyncTaskExecutor("test", 1, 1, queueCapacity, policy);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return executor;
+    }
+
+    void shutdown(AsyncTaskExecutor executor) throws InterruptedException {
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(Duration.ofSeconds(5)));
+    }
+}
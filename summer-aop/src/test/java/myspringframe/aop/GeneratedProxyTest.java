@@ -0,0 +1,53 @@
+package myspringframe.aop;
+
+import junit.framework.TestCase;
+import myspringframe.aop.generated.Calculator;
+import myspringframe.aop.generated.Calculator$$SummerProxy;
+import myspringframe.aop.generated.StaleCalculator;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class GeneratedProxyTest extends TestCase {
+
+    public void testGeneratedProxyClassUsed() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        Calculator target = new Calculator();
+        Calculator proxy = ProxyResolver.getInstance().createProxy(target, (MethodInterceptor) invocation -> {
+            calls.add(invocation.getMethod().getName());
+            Object result = invocation.proceed();
+            return result instanceof Integer ? (Integer) result * 10 : result;
+        });
+        assertSame(Calculator$$SummerProxy.class, proxy.getClass());
+        assertSame(target, ((ProxyObject) proxy).$$getTarget());
+        assertEquals(30, proxy.add(1, 2));
+        assertEquals("calculator", proxy.name());
+        assertEquals(2, calls.size());
+    }
+
+    public void testMethodsWithoutChainCallTargetDirectly() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        Method name = Calculator.class.getMethod("name");
+        Map<Method, MethodInterceptor[]> chains = Collections.singletonMap(name, new MethodInterceptor[] { invocation -> {
+            calls.add("name");
+            return "proxied " + invocation.proceed();
+        } });
+        Calculator proxy = ProxyResolver.getInstance().createProxy(new Calculator(), chains);
+        assertSame(Calculator$$SummerProxy.class, proxy.getClass());
+        assertEquals(3, proxy.add(1, 2));
+        assertEquals("proxied calculator", proxy.name());
+        assertEquals(Collections.singletonList("name"), calls);
+        assertEquals(chains.keySet(), ProxyResolver.getInstance().getInterceptorChains(proxy).keySet());
+    }
+
+    public void testStaleGeneratedProxyIgnored() throws Exception {
+        StaleCalculator proxy = ProxyResolver.getInstance().createProxy(new StaleCalculator(), (MethodInterceptor) invocation -> -1);
+        // 生成类与目标类不一致，使用运行时生成的代理类:
+        assertFalse(proxy.getClass().getName().endsWith(ProxyResolver.GENERATED_SUFFIX));
+        assertTrue(proxy instanceof ProxyObject);
+        assertEquals(-1, proxy.multiply(2, 3));
+    }
+}
@@ -0,0 +1,35 @@
+package myspringframe.aop;
+
+import junit.framework.TestCase;
+import myspringframe.aop.lazy.LazyClient;
+import myspringframe.aop.lazy.LazyProxyApplication;
+import myspringframe.aop.lazy.LazyRepository;
+import myspringframe.context.AnnotationConfigApplicationContext;
+import myspringframe.io.propertyresolver.PropertyResolver;
+
+import java.util.Properties;
+
+public class LazyResolutionProxyFactoryTest extends TestCase {
+
+    public void testInjectedLazyBeanCreatedOnFirstCall() throws Exception {
+        LazyRepository.CREATED.set(0);
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(LazyProxyApplication.class, new PropertyResolver(new Properties()))) {
+            LazyClient client = ctx.getBean(LazyClient.class);
+            // 注入的是代理，Bean尚未创建:
+            assertTrue(client.getRepository() instanceof ProxyObject);
+            assertEquals(0, LazyRepository.CREATED.get());
+            assertEquals("user-7", client.find(7));
+            assertEquals("user-8", client.find(8));
+            assertEquals(1, LazyRepository.CREATED.get());
+            // getBean返回原始Bean:
+            assertFalse(ctx.getBean(LazyRepository.class) instanceof ProxyObject);
+            assertEquals(1, LazyRepository.CREATED.get());
+        }
+    }
+
+    public void testFinalTypeIsNotProxyable() {
+        LazyResolutionProxyFactory factory = new LazyResolutionProxyFactory();
+        assertNull(factory.createLazyProxy(String.class, () -> "value"));
+        assertNotNull(factory.createLazyProxy(Runnable.class, () -> (Runnable) () -> {}));
+    }
+}
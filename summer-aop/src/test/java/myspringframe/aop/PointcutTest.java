@@ -0,0 +1,82 @@
+package myspringframe.aop;
+
+import junit.framework.TestCase;
+import myspringframe.aop.chain.AccountService;
+import myspringframe.aop.chain.ChainConfiguration;
+import myspringframe.context.AnnotationConfigApplicationContext;
+import myspringframe.exception.AopConfigException;
+import myspringframe.io.propertyresolver.PropertyResolver;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Properties;
+
+public class PointcutTest extends TestCase {
+
+    public static class OrderHelper {
+        public void getOrder() {
+        }
+
+        @Deprecated
+        public void saveOrder() {
+        }
+
+        public void deleteOrder() {
+        }
+    }
+
+    public void testPrimaryExpressions() throws Exception {
+        assertMatches("package(myspringframe.aop)", "getOrder", true);
+        assertMatches("package(myspringframe.*)", "getOrder", true);
+        assertMatches("package(myspringframe)", "getOrder", false);
+        // 不含.时匹配简单类名:
+        assertMatches("type(*Helper)", "getOrder", true);
+        assertMatches("type(myspringframe.aop.PointcutTest$OrderHelper)", "getOrder", true);
+        assertMatches("type(OrderService)", "getOrder", false);
+        assertMatches("method(get*)", "getOrder", true);
+        assertMatches("method(*Order)", "saveOrder", true);
+        assertMatches("method(get*)", "saveOrder", false);
+        assertMatches("@annotation(Deprecated)", "saveOrder", true);
+        assertMatches("@annotation(java.lang.Deprecated)", "saveOrder", true);
+        assertMatches("@annotation(Deprecated)", "getOrder", false);
+    }
+
+    public void testOperators() throws Exception {
+        // &&优先于||:
+        String expression = "method(delete*) || method(get*) && !type(*Helper)";
+        assertMatches(expression, "deleteOrder", true);
+        assertMatches(expression, "getOrder", false);
+        assertMatches("(method(delete*) || method(get*)) && !type(*Helper)", "deleteOrder", false);
+        assertMatches("!!method(get*)", "getOrder", true);
+        assertMatches("package(myspringframe.*) && (method(get*) || @annotation(Deprecated))", "saveOrder", true);
+        assertMatches("", "deleteOrder", true);
+    }
+
+    public void testSyntaxErrors() {
+        for (String expression : Arrays.asList("method(get*", "method()", "method(get*) &&", "field(x)", "method(get*) method(set*)", "(method(get*)")) {
+            try {
+                Pointcut.parse(expression);
+                fail("Expected AopConfigException for: " + expression);
+            } catch (AopConfigException e) {
+                assertTrue(e.getMessage().contains(expression));
+            }
+        }
+    }
+
+    public void testAnnotationPointcut() throws Exception {
+        ChainConfiguration.CALLS.clear();
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ChainConfiguration.class, new PropertyResolver(new Properties()))) {
+            AccountService account = ctx.getBean(AccountService.class);
+            account.getBalance();
+            account.getLegacyId();
+            account.close();
+            // 只有匹配pointcut的方法被拦截:
+            assertEquals(Arrays.asList("trace", "getBalance", "getLegacyId", "close"), ChainConfiguration.CALLS);
+        }
+    }
+
+    void assertMatches(String expression, String methodName, boolean expected) throws Exception {
+        Method method = OrderHelper.class.getMethod(methodName);
+        assertEquals(expression + " on " + methodName, expected, Pointcut.parse(expression).matches(OrderHelper.class, method));
+    }
+}
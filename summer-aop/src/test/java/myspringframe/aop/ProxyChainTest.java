@@ -0,0 +1,35 @@
+package myspringframe.aop;
+
+import junit.framework.TestCase;
+import myspringframe.aop.chain.ChainConfiguration;
+import myspringframe.aop.chain.Greeter;
+import myspringframe.context.AnnotationConfigApplicationContext;
+import myspringframe.io.propertyresolver.PropertyResolver;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+public class ProxyChainTest extends TestCase {
+
+    @Override
+    protected void setUp() {
+        ChainConfiguration.CALLS.clear();
+    }
+
+    public void testInvocationHandlerDoesNotSkipLaterInterceptors() throws Exception {
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ChainConfiguration.class, new PropertyResolver(new Properties()))) {
+            Greeter greeter = ctx.getBean(Greeter.class);
+            assertTrue(greeter instanceof ProxyObject);
+            assertEquals("hello bob", greeter.greet("bob"));
+            assertEquals(Arrays.asList("legacy", "trace", "target"), ChainConfiguration.CALLS);
+        }
+    }
+
+    public void testClassLevelAdviceSkipsObjectMethods() throws Exception {
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ChainConfiguration.class, new PropertyResolver(new Properties()))) {
+            Greeter greeter = ctx.getBean(Greeter.class);
+            assertEquals("Greeter", greeter.toString());
+            assertTrue(ChainConfiguration.CALLS.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package myspringframe.aop;
+
+import junit.framework.TestCase;
+import myspringframe.aop.chain.Greeter;
+
+import java.util.Collections;
+
+public class ProxyResolverTest extends TestCase {
+
+    public void testHandlerAndChainProxiesDoNotShareCachedClass() {
+        ProxyResolver resolver = new ProxyResolver();
+        // 没有拦截器链的代理类先进入缓存:
+        Greeter direct = resolver.createProxy(new Greeter(), Collections.emptyMap());
+        assertEquals("hello bob", direct.greet("bob"));
+
+        Greeter handled = resolver.createProxy(new Greeter(), (proxy, method, args) -> "handled");
+        assertNotSame(direct.getClass(), handled.getClass());
+        assertEquals("handled", handled.greet("bob"));
+    }
+}
@@ -0,0 +1,22 @@
+package myspringframe.aop.async;
+
+import myspringframe.annotation.Bean;
+import myspringframe.annotation.ComponentScan;
+import myspringframe.annotation.Configuration;
+import myspringframe.aop.AsyncBeanPostProcessor;
+import myspringframe.aop.AsyncTaskExecutor;
+
+@Configuration
+@ComponentScan
+public class AsyncApplication {
+
+    @Bean
+    AsyncBeanPostProcessor asyncBeanPostProcessor() {
+        return new AsyncBeanPostProcessor();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    AsyncTaskExecutor reportExecutor() {
+        return new AsyncTaskExecutor("reports", 1, 1, 0, AsyncTaskExecutor.RejectionPolicy.CALLER_RUNS);
+    }
+}
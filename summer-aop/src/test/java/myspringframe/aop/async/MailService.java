@@ -0,0 +1,29 @@
+package myspringframe.aop.async;
+
+import myspringframe.annotation.Async;
+import myspringframe.annotation.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@Async
+public class MailService {
+
+    public CompletableFuture<String> send(String to) {
+        return CompletableFuture.completedFuture(to + "@" + Thread.currentThread().getName());
+    }
+
+    public CompletableFuture<String> fail() {
+        throw new IllegalStateException("mail server down");
+    }
+
+    @Async("reportExecutor")
+    public CompletableFuture<String> report() {
+        return CompletableFuture.completedFuture(Thread.currentThread().getName());
+    }
+
+    // 返回类型不支持异步，类上的@Async不生效:
+    public String name() {
+        return Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,22 @@
+package myspringframe.aop.chain;
+
+import myspringframe.annotation.Component;
+
+@Component
+@Traced(value = "trace", pointcut = "method(get*) && !@annotation(Deprecated)")
+public class AccountService {
+    public int getBalance() {
+        ChainConfiguration.CALLS.add("getBalance");
+        return 100;
+    }
+
+    @Deprecated
+    public String getLegacyId() {
+        ChainConfiguration.CALLS.add("getLegacyId");
+        return "legacy";
+    }
+
+    public void close() {
+        ChainConfiguration.CALLS.add("close");
+    }
+}
@@ -0,0 +1,25 @@
+package myspringframe.aop.chain;
+
+import myspringframe.annotation.Bean;
+import myspringframe.annotation.ComponentScan;
+import myspringframe.annotation.Configuration;
+import myspringframe.aop.AroundProxyBeanPostProcessor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Configuration
+@ComponentScan
+public class ChainConfiguration {
+    public static final List<String> CALLS = new CopyOnWriteArrayList<>();
+
+    @Bean
+    AroundProxyBeanPostProcessor aroundProxyBeanPostProcessor() {
+        return new AroundProxyBeanPostProcessor();
+    }
+
+    @Bean
+    TracedBeanPostProcessor tracedBeanPostProcessor() {
+        return new TracedBeanPostProcessor();
+    }
+}
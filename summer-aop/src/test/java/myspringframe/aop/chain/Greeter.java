@@ -0,0 +1,19 @@
+package myspringframe.aop.chain;
+
+import myspringframe.annotation.Around;
+import myspringframe.annotation.Component;
+
+@Component
+@Around("legacy")
+@Traced("trace")
+public class Greeter {
+    public String greet(String name) {
+        ChainConfiguration.CALLS.add("target");
+        return "hello " + name;
+    }
+
+    @Override
+    public String toString() {
+        return "Greeter";
+    }
+}
@@ -0,0 +1,17 @@
+package myspringframe.aop.chain;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Order;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+@Component("legacy")
+@Order(1)
+public class LegacyHandler implements InvocationHandler {
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        ChainConfiguration.CALLS.add("legacy");
+        return method.invoke(proxy, args);
+    }
+}
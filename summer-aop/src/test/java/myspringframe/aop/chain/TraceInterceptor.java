@@ -0,0 +1,16 @@
+package myspringframe.aop.chain;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Order;
+import myspringframe.aop.MethodInterceptor;
+import myspringframe.aop.MethodInvocation;
+
+@Component("trace")
+@Order(2)
+public class TraceInterceptor implements MethodInterceptor {
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ChainConfiguration.CALLS.add("trace");
+        return invocation.proceed();
+    }
+}
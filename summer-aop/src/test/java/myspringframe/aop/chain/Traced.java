@@ -0,0 +1,11 @@
+package myspringframe.aop.chain;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Traced {
+    String value();
+
+    String pointcut() default "";
+}
@@ -0,0 +1,6 @@
+package myspringframe.aop.chain;
+
+import myspringframe.aop.AnnotationProxyBeanPostProcessor;
+
+public class TracedBeanPostProcessor extends AnnotationProxyBeanPostProcessor<Traced> {
+}
@@ -0,0 +1,91 @@
+package myspringframe.aop.generated;
+
+/**
+ * 与summer-processor为Calculator生成的代理类相同。
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class Calculator$$SummerProxy extends myspringframe.aop.generated.Calculator implements myspringframe.aop.ProxyObject {
+
+    static final java.lang.reflect.Method[] METHODS = $$methods();
+
+    private Object $$target;
+    private java.lang.reflect.InvocationHandler $$handler;
+    private myspringframe.aop.MethodInterceptor[][] $$chains;
+
+    /**
+     * 按下标排列的被覆写方法，ProxyResolver按此顺序设置拦截器链。
+     */
+    public static java.lang.reflect.Method[] $$methods() {
+        try {
+            return new java.lang.reflect.Method[] {
+                myspringframe.aop.generated.Calculator.class.getMethod("add", int.class, int.class),
+                myspringframe.aop.generated.Calculator.class.getMethod("name"),
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Object $$getTarget() {
+        return this.$$target;
+    }
+
+    @Override
+    public void $$setTarget(Object value) {
+        this.$$target = value;
+    }
+
+    @Override
+    public java.lang.reflect.InvocationHandler $$getHandler() {
+        return this.$$handler;
+    }
+
+    @Override
+    public void $$setHandler(java.lang.reflect.InvocationHandler value) {
+        this.$$handler = value;
+    }
+
+    @Override
+    public myspringframe.aop.MethodInterceptor[][] $$getChains() {
+        return this.$$chains;
+    }
+
+    @Override
+    public void $$setChains(myspringframe.aop.MethodInterceptor[][] value) {
+        this.$$chains = value;
+    }
+
+    @Override
+    public int add(int p0, int p1) {
+        myspringframe.aop.MethodInterceptor[] chain = this.$$chains[0];
+        if (chain == null) {
+            return ((myspringframe.aop.generated.Calculator) this.$$target).add(p0, p1);
+        }
+        return (int) myspringframe.aop.ProxyResolver.invokeChain(this.$$target, METHODS[0], new Object[] { p0, p1 }, $$t -> ((myspringframe.aop.generated.Calculator) $$t).add(p0, p1), chain);
+    }
+
+    @Override
+    public java.lang.String name() {
+        myspringframe.aop.MethodInterceptor[] chain = this.$$chains[1];
+        if (chain == null) {
+            return ((myspringframe.aop.generated.Calculator) this.$$target).name();
+        }
+        return (java.lang.String) myspringframe.aop.ProxyResolver.invokeChain(this.$$target, METHODS[1], new Object[] {}, $$t -> ((myspringframe.aop.generated.Calculator) $$t).name(), chain);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.$$target.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object p0) {
+        return this.$$target.equals(p0);
+    }
+
+    @Override
+    public java.lang.String toString() {
+        return this.$$target.toString();
+    }
+}
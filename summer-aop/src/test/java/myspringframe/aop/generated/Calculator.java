@@ -0,0 +1,11 @@
+package myspringframe.aop.generated;
+
+public class Calculator {
+    public int add(int a, int b) {
+        return a + b;
+    }
+
+    public String name() {
+        return "calculator";
+    }
+}
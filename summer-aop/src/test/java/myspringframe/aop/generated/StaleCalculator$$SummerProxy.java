@@ -0,0 +1,17 @@
+package myspringframe.aop.generated;
+
+/**
+ * 模拟目标类修改后未重新生成的代理类，$$methods()引用的方法已不存在。
+ */
+public abstract class StaleCalculator$$SummerProxy extends myspringframe.aop.generated.StaleCalculator implements myspringframe.aop.ProxyObject {
+
+    public static java.lang.reflect.Method[] $$methods() {
+        try {
+            return new java.lang.reflect.Method[] {
+                myspringframe.aop.generated.StaleCalculator.class.getMethod("divide", int.class, int.class),
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package myspringframe.aop.generated;
+
+public class StaleCalculator {
+    public int multiply(int a, int b) {
+        return a * b;
+    }
+}
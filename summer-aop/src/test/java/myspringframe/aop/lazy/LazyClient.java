@@ -0,0 +1,18 @@
+package myspringframe.aop.lazy;
+
+import myspringframe.annotation.Autowired;
+import myspringframe.annotation.Component;
+
+@Component
+public class LazyClient {
+    @Autowired
+    LazyRepository repository;
+
+    public LazyRepository getRepository() {
+        return repository;
+    }
+
+    public String find(long id) {
+        return repository.find(id);
+    }
+}
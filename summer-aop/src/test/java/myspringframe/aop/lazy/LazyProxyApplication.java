@@ -0,0 +1,7 @@
+package myspringframe.aop.lazy;
+
+import myspringframe.annotation.ComponentScan;
+
+@ComponentScan
+public class LazyProxyApplication {
+}
@@ -0,0 +1,20 @@
+package myspringframe.aop.lazy;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Lazy
+public class LazyRepository {
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public LazyRepository() {
+        CREATED.incrementAndGet();
+    }
+
+    public String find(long id) {
+        return "user-" + id;
+    }
+}
@@ -21,6 +21,13 @@ public class ClassPathUtils {
         }
     }
 
+    public static boolean exists(String path) {
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return getContextClassLoader().getResource(path) != null;
+    }
+
     public static String readString(String path) throws IOException{
         return readInputStream(path, (input) -> {
             byte[] data = readAllBytes(input);
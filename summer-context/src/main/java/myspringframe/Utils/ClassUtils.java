@@ -5,24 +5,54 @@ import myspringframe.annotation.Component;
 import myspringframe.exception.BeanDefinitionException;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.List;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class ClassUtils {
+    // 类 -> (注解类型 -> 查找结果)，未找到时缓存Optional.empty():
+    static final ClassValue<Map<Class<? extends Annotation>, Optional<MergedAnnotation<?>>>> MERGED_ANNOTATIONS =
+            new ClassValue<Map<Class<? extends Annotation>, Optional<MergedAnnotation<?>>>>() {
+                @Override
+                protected Map<Class<? extends Annotation>, Optional<MergedAnnotation<?>>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     public static <A extends Annotation> A findAnnotation(Class<?> target, Class<A> annoClass){
-        A a = target.getAnnotation(annoClass);
+        MergedAnnotation<A> merged = findMergedAnnotation(target, annoClass);
+        return merged == null ? null : merged.getAnnotation();
+    }
+
+    /**
+     * 查找直接标注或通过元注解标注的注解，结果按类缓存。
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation> MergedAnnotation<A> findMergedAnnotation(Class<?> target, Class<A> annoClass){
+        Map<Class<? extends Annotation>, Optional<MergedAnnotation<?>>> cache = MERGED_ANNOTATIONS.get(target);
+        Optional<MergedAnnotation<?>> cached = cache.get(annoClass);
+        if (cached == null) {
+            // 元注解会递归查找其他类的缓存，因此不在computeIfAbsent中计算:
+            cached = Optional.ofNullable(doFindMergedAnnotation(target, annoClass));
+            cache.putIfAbsent(annoClass, cached);
+        }
+        return (MergedAnnotation<A>) cached.orElse(null);
+    }
+
+    static <A extends Annotation> MergedAnnotation<A> doFindMergedAnnotation(Class<?> target, Class<A> annoClass){
+        A direct = target.getAnnotation(annoClass);
+        MergedAnnotation<A> a = direct == null ? null : new MergedAnnotation<>(Collections.singletonList(direct));
         for (Annotation anno : target.getAnnotations()){
             Class<? extends Annotation> annoType = anno.annotationType();
             if (!annoType.getPackage().getName().equals("java.lang.annotation")){
-                A found = findAnnotation(annoType,annoClass);
+                MergedAnnotation<A> found = findMergedAnnotation(annoType,annoClass);
                 if (found != null) {
                     if (a != null){
                         throw new BeanDefinitionException("Duplicate @" + annoClass.getSimpleName() +
                                 " found on class " + target.getSimpleName());
                     }
-                    a = found;
+                    a = found.withRoot(anno);
                 }
             }
         }
@@ -31,20 +61,14 @@ public class ClassUtils {
 
     public static String getBeanName(Class<?> clazz){
         String name = "";
-        Component component = clazz.getAnnotation(Component.class);
+        MergedAnnotation<Component> component = findMergedAnnotation(clazz, Component.class);
         if (component != null){
-            name = component.value();
-        }
-        else {
-            for (Annotation anno : clazz.getAnnotations()){
-                if (findAnnotation(anno.annotationType(),Component.class) != null){
-                    try{
-                        name = (String) anno.annotationType().getMethod("value").invoke(anno);
-                    }catch (ReflectiveOperationException e) {
-                        throw new BeanDefinitionException("Cannot get annotation value.", e);
-                    }
-                }
+            // 通过元注解标注时，取类上注解的value:
+            Object value = component.getRootAttribute("value");
+            if (!(value instanceof String)) {
+                throw new BeanDefinitionException("Cannot get annotation value.");
             }
+            name = (String) value;
         }
         if (name.isEmpty()) {
             name = clazz.getSimpleName();
@@ -95,4 +119,35 @@ public class ClassUtils {
         }
 
     }
+
+    // 返回泛型类型的原始类型，类型变量和通配符返回其上界:
+    public static Class<?> getRawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return getRawClass(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(getRawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return getRawClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return getRawClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    // 返回第index个泛型参数，没有时返回Object.class:
+    public static Type getTypeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < args.length) {
+                return args[index];
+            }
+        }
+        return Object.class;
+    }
 }
@@ -0,0 +1,74 @@
+package myspringframe.Utils;
+
+import myspringframe.exception.BeanDefinitionException;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * 在类上直接或通过元注解找到的注解，包括从类上的注解到目标注解的路径和已解析的属性值。
+ */
+public class MergedAnnotation<A extends Annotation> {
+    // 从类上直接标注的注解到目标注解:
+    final List<Annotation> path;
+    final Map<String, Object> attributes;
+    final Map<String, Object> rootAttributes;
+
+    MergedAnnotation(List<Annotation> path) {
+        this.path = Collections.unmodifiableList(path);
+        this.attributes = resolveAttributes(path.get(path.size() - 1));
+        this.rootAttributes = path.size() == 1 ? this.attributes : resolveAttributes(path.get(0));
+    }
+
+    MergedAnnotation<A> withRoot(Annotation root) {
+        List<Annotation> newPath = new ArrayList<>(this.path.size() + 1);
+        newPath.add(root);
+        newPath.addAll(this.path);
+        return new MergedAnnotation<>(newPath);
+    }
+
+    @SuppressWarnings("unchecked")
+    public A getAnnotation() {
+        return (A) this.path.get(this.path.size() - 1);
+    }
+
+    /**
+     * 类上直接标注的注解，直接标注目标注解时与getAnnotation()相同。
+     */
+    public Annotation getRoot() {
+        return this.path.get(0);
+    }
+
+    public List<Annotation> getPath() {
+        return this.path;
+    }
+
+    public boolean isDirectlyPresent() {
+        return this.path.size() == 1;
+    }
+
+    public Object getAttribute(String name) {
+        return this.attributes.get(name);
+    }
+
+    public Object getRootAttribute(String name) {
+        return this.rootAttributes.get(name);
+    }
+
+    static Map<String, Object> resolveAttributes(Annotation anno) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (Method m : anno.annotationType().getDeclaredMethods()) {
+            if (m.getParameterCount() != 0) {
+                continue;
+            }
+            try {
+                m.setAccessible(true);
+                attributes.put(m.getName(), m.invoke(anno));
+            } catch (ReflectiveOperationException e) {
+                throw new BeanDefinitionException("Cannot get annotation value.", e);
+            }
+        }
+        return Collections.unmodifiableMap(attributes);
+    }
+}
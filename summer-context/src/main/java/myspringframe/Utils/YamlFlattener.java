@@ -0,0 +1,226 @@
+package myspringframe.Utils;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+import java.io.Reader;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * 按SnakeYAML的解析事件展开YAML，不构建对象树，直接输出a.b.c和a.b[0].c形式的key。
+ * null值输出为空字符串，锚点记录其事件并在别名处重放，"<<"合并的key展开到所在的Map。
+ * "<<"的值为Map列表时按顺序合并，先出现的Map优先，Map中显式的key优先于合并的key。
+ */
+class YamlFlattener {
+    static final String NULL_TAG = "tag:yaml.org,2002:null";
+    static final Set<String> NULL_VALUES = new HashSet<>(Arrays.asList("", "~", "null", "Null", "NULL"));
+
+    final BiConsumer<String, String> consumer;
+    final Deque<Frame> frames = new ArrayDeque<>();
+    final Map<String, List<Event>> anchors = new HashMap<>();
+    final List<Recorder> recorders = new ArrayList<>();
+
+    YamlFlattener(BiConsumer<String, String> consumer) {
+        this.consumer = consumer;
+    }
+
+    void flatten(Reader reader) {
+        LoaderOptions options = new LoaderOptions();
+        // 允许大配置文件:
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        Parser parser = new ParserImpl(new StreamReader(reader), options);
+        while (parser.peekEvent() != null) {
+            Event event = parser.getEvent();
+            record(event);
+            handle(event);
+            if (event instanceof StreamEndEvent) {
+                break;
+            }
+        }
+    }
+
+    // 记录带锚点的节点的事件:
+    void record(Event event) {
+        for (Iterator<Recorder> it = this.recorders.iterator(); it.hasNext(); ) {
+            Recorder recorder = it.next();
+            recorder.events.add(event);
+            if (event instanceof CollectionStartEvent) {
+                recorder.depth++;
+            } else if (event instanceof CollectionEndEvent) {
+                recorder.depth--;
+            }
+            if (recorder.depth == 0) {
+                this.anchors.put(recorder.anchor, recorder.events);
+                it.remove();
+            }
+        }
+        if (event instanceof NodeEvent && !(event instanceof AliasEvent) && ((NodeEvent) event).getAnchor() != null) {
+            String anchor = ((NodeEvent) event).getAnchor();
+            if (event instanceof ScalarEvent) {
+                this.anchors.put(anchor, Collections.singletonList(event));
+            } else {
+                Recorder recorder = new Recorder(anchor);
+                recorder.events.add(event);
+                this.recorders.add(recorder);
+            }
+        }
+    }
+
+    void handle(Event event) {
+        if (event instanceof MappingStartEvent || event instanceof SequenceStartEvent) {
+            Frame top = this.frames.peek();
+            if (top != null && top.mapping && top.key == null) {
+                throw new IllegalArgumentException("Complex mapping key is not supported at " + event.getStartMark());
+            }
+            Frame mergeInto = getMergeTarget(top);
+            Frame frame = new Frame(nextPath(), event instanceof MappingStartEvent);
+            frame.mergeInto = mergeInto;
+            frame.mergeList = mergeInto != null && !frame.mapping && top.mapping;
+            this.frames.push(frame);
+        } else if (event instanceof CollectionEndEvent) {
+            flushMerged(this.frames.pop());
+        } else if (event instanceof ScalarEvent) {
+            ScalarEvent scalar = (ScalarEvent) event;
+            Frame top = this.frames.peek();
+            if (top == null) {
+                // 文档只有一个标量，没有key:
+                return;
+            }
+            if (top.mapping && top.key == null) {
+                top.key = scalar.getValue();
+            } else {
+                String path = nextPath();
+                emit(path, isNull(scalar) ? "" : scalar.getValue());
+            }
+        } else if (event instanceof AliasEvent) {
+            String anchor = ((AliasEvent) event).getAnchor();
+            List<Event> events = this.anchors.get(anchor);
+            if (events == null) {
+                throw new IllegalArgumentException("Unknown anchor '" + anchor + "' at " + event.getStartMark());
+            }
+            for (Event e : events) {
+                handle(e);
+            }
+        }
+    }
+
+    // 当前值对应的完整key:
+    String nextPath() {
+        Frame top = this.frames.peek();
+        if (top == null) {
+            return "";
+        }
+        if (!top.mapping) {
+            // "<<"列表中的每个Map都合并到同一个Map:
+            return top.mergeList ? top.path : top.path + "[" + top.index++ + "]";
+        }
+        String key = top.key;
+        top.key = null;
+        if ("<<".equals(key)) {
+            return top.path;
+        }
+        top.lastKey = key;
+        if (top.keys == null) {
+            top.keys = new HashSet<>();
+        }
+        top.keys.add(key);
+        return top.path.isEmpty() ? key : top.path + "." + key;
+    }
+
+    // 即将开始的集合是"<<"的值或"<<"列表中的元素时，返回合并到的Map:
+    static Frame getMergeTarget(Frame top) {
+        if (top == null) {
+            return null;
+        }
+        if (top.mapping && "<<".equals(top.key)) {
+            return top;
+        }
+        return top.mergeList ? top.mergeInto : null;
+    }
+
+    // 位于合并来源中的值先交给合并到的Map，在该Map结束时再输出:
+    void emit(String path, String value) {
+        for (Frame frame : this.frames) {
+            if (frame.mergeInto != null) {
+                if (frame.lastKey != null) {
+                    frame.mergeInto.merge(frame, frame.lastKey, path, value);
+                    return;
+                }
+                break;
+            }
+        }
+        this.consumer.accept(path, value);
+    }
+
+    void flushMerged(Frame frame) {
+        if (frame.merged == null) {
+            return;
+        }
+        for (String[] entry : frame.merged) {
+            // 显式的key优先:
+            if (frame.keys != null && frame.keys.contains(entry[0])) {
+                continue;
+            }
+            if (frame.mergeInto != null) {
+                frame.mergeInto.merge(frame, entry[0], entry[1], entry[2]);
+            } else {
+                emit(entry[1], entry[2]);
+            }
+        }
+    }
+
+    static boolean isNull(ScalarEvent scalar) {
+        if (NULL_TAG.equals(scalar.getTag())) {
+            return true;
+        }
+        return scalar.getTag() == null && scalar.isPlain() && NULL_VALUES.contains(scalar.getValue());
+    }
+
+    static class Frame {
+        final String path;
+        final boolean mapping;
+        String key;
+        int index;
+        // 已出现的key及最近一个key:
+        Set<String> keys;
+        String lastKey;
+        // 不为null时本集合是"<<"的值，其中的key合并到mergeInto:
+        Frame mergeInto;
+        // "<<"的值为列表:
+        boolean mergeList;
+        // 合并来的key -> 提供该key的合并来源，以及合并来的值(key, 完整key, 值):
+        Map<String, Frame> mergedFrom;
+        List<String[]> merged;
+
+        Frame(String path, boolean mapping) {
+            this.path = path;
+            this.mapping = mapping;
+        }
+
+        // 同一个key只接受最先提供它的合并来源:
+        void merge(Frame source, String key, String path, String value) {
+            if (this.merged == null) {
+                this.mergedFrom = new HashMap<>();
+                this.merged = new ArrayList<>();
+            }
+            Frame owner = this.mergedFrom.putIfAbsent(key, source);
+            if (owner == null || owner == source) {
+                this.merged.add(new String[] { key, path, value });
+            }
+        }
+    }
+
+    static class Recorder {
+        final String anchor;
+        final List<Event> events = new ArrayList<>();
+        int depth = 1;
+
+        Recorder(String anchor) {
+            this.anchor = anchor;
+        }
+    }
+}
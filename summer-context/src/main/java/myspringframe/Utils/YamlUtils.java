@@ -4,41 +4,45 @@ import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.reader.UnicodeReader;
 import org.yaml.snakeyaml.representer.Representer;
 import org.yaml.snakeyaml.resolver.Resolver;
 
+import java.io.InputStream;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 public class YamlUtils {
     @SuppressWarnings("unchecked")
     public static Map<String, Object> loadYaml(String path) {
+        return ClassPathUtils.readInputStream(path, YamlUtils::loadYaml);
+    }
 
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> loadYaml(InputStream input) {
         Yaml yaml =
                 new Yaml(new Constructor(), new Representer(), new DumperOptions(), new LoaderOptions(), new NoImplicitResolver());
-        return ClassPathUtils.readInputStream(path, (input) -> {
-            return (Map<String, Object>) yaml.load(input);
-        });
+        Map<String, Object> map = (Map<String, Object>) yaml.load(input);
+        // 空文件:
+        return map == null ? new LinkedHashMap<>() : map;
     }
+
     public static Map<String, Object> loadYamlAsPlainMap(String path){
-        Map<String,Object> source = loadYaml(path);
-        Map<String, Object> plain=new LinkedHashMap<>();
-        convertTo(source,"",plain);
+        return ClassPathUtils.readInputStream(path, YamlUtils::loadYamlAsPlainMap);
+    }
+
+    public static Map<String, Object> loadYamlAsPlainMap(InputStream input){
+        Map<String, Object> plain = new LinkedHashMap<>();
+        flattenYaml(input, plain::put);
         return plain;
     }
-    static void convertTo(Map<String, Object> source, String prefix, Map<String, Object> plain){
-        for (String k : source.keySet()){
-            Object value = source.get(k);
-            if (value instanceof Map){
-                Map<String, Object> subMap = (Map<String, Object>) value;
-                convertTo(subMap,prefix + k + ".",plain);
-            }
-            else if (value instanceof List){
-                plain.put(prefix + k,value);
-            }
-            else plain.put(prefix + k, value.toString());
-        }
+
+    /**
+     * 按解析事件展开YAML并逐个输出key和value，不构建完整的对象树。
+     */
+    public static void flattenYaml(InputStream input, BiConsumer<String, String> consumer) {
+        new YamlFlattener(consumer).flatten(new UnicodeReader(input));
     }
 }
 
@@ -0,0 +1,16 @@
+package myspringframe.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConfigurationProperties {
+
+    // 属性前缀，如summer.datasource
+    String prefix();
+
+    // 为false时，前缀下没有对应字段的属性作为错误报告
+    boolean ignoreUnknownFields() default true;
+
+}
@@ -0,0 +1,32 @@
+package myspringframe.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 标注单例Bean的方法监听事件，方法只能有一个参数，参数类型即监听的事件类型。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventListener {
+
+    /**
+     * 在事件线程池中异步调用。
+     */
+    boolean async() default false;
+
+    /**
+     * 大于0时批量异步投递，方法参数为List，累积batchSize个事件或等待delay毫秒后调用一次，必须同时指定delay。
+     */
+    int batchSize() default 0;
+
+    /**
+     * 合并异步投递，delay毫秒内只投递最新的一个事件。
+     */
+    boolean coalesce() default false;
+
+    /**
+     * 批量或合并投递的最长等待毫秒数。
+     */
+    long delay() default 0;
+}
@@ -0,0 +1,12 @@
+package myspringframe.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Lazy {
+
+    boolean value() default true;
+
+}
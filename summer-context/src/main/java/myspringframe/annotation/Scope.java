@@ -0,0 +1,13 @@
+package myspringframe.annotation;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scope {
+
+    // singleton, prototype, pooled或通过registerScope()注册的作用域名称
+    String value();
+
+}
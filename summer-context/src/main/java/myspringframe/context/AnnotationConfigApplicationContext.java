@@ -3,7 +3,11 @@ package myspringframe.context;
 import myspringframe.Utils.ClassUtils;
 import myspringframe.annotation.*;
 import myspringframe.exception.*;
+import myspringframe.io.propertyresolver.ConfigurationPropertiesBinder;
 import myspringframe.io.propertyresolver.PropertyResolver;
+import myspringframe.io.resourcescan.AnnotationClassFilter;
+import myspringframe.io.resourcescan.ComponentIndex;
+import myspringframe.io.resourcescan.JarFileSystemCache;
 import myspringframe.io.resourcescan.ResourceResolver;
 
 import javax.annotation.PostConstruct;
@@ -12,159 +16,625 @@ import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class AnnotationConfigApplicationContext implements ConfigurableApplicationContext{
-    private Map<String, BeanDefinition> beans;
+
+    /**
+     * 容器生命周期：REFRESHING -> ACTIVE -> CLOSING -> CLOSED，refresh失败直接进入CLOSED。
+     */
+    public enum State {
+        REFRESHING, ACTIVE, CLOSING, CLOSED
+    }
+
+    public static final String EVENT_EXECUTOR_BEAN_NAME = "applicationEventExecutor";
+
+    private final Map<String, BeanDefinition> beans;
+    private volatile BeanTypeIndex typeIndex = BeanTypeIndex.EMPTY;
     protected final PropertyResolver propertyResolver;
-    private List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
+    private volatile List<BeanPostProcessor> beanPostProcessors = Collections.emptyList();
+
+    private final Set<String> creatingBeanNames = ConcurrentHashMap.newKeySet();
+    private volatile LazyProxyFactory lazyProxyFactory;
+    private final Object lazyInitLock = new Object();
+    private static final LazyProxyFactory NO_LAZY_PROXY = (type, targetSupplier) -> null;
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<>();
+    // 当前线程正在创建的非单例Bean，用于检测循环依赖:
+    private final ThreadLocal<Set<String>> creatingScopedBeanNames = ThreadLocal.withInitial(HashSet::new);
 
-    private Set<String> creatingBeanNames;
+    private final AtomicReference<State> state = new AtomicReference<>(State.REFRESHING);
+    private final CountDownLatch refreshed = new CountDownLatch(1);
+    // 正在执行refresh或close的线程，允许在非ACTIVE状态下读取Bean:
+    private final Set<Thread> lifecycleThreads = ConcurrentHashMap.newKeySet();
+    // 只在refresh期间且开启startup-profiling时不为null:
+    private volatile StartupProfiler profiler;
+    private volatile StartupReport startupReport;
+    // 是否使用summer-processor生成的GeneratedBeanFactory:
+    private final boolean useGeneratedFactories;
+    // 按创建顺序记录的单例Bean，用于快照和关闭时的销毁顺序:
+    private final Queue<String> createdBeanNames = new ConcurrentLinkedQueue<>();
+    // Bean名称 -> 注入了该Bean的单例Bean名称，关闭时先销毁后者:
+    private final Map<String, Set<String>> dependentBeanNames = new ConcurrentHashMap<>();
+    // refresh结束时创建，之前发布的事件暂存在earlyEvents中:
+    private volatile ApplicationEventMulticaster eventMulticaster;
+    private final List<Object> earlyEvents = new ArrayList<>();
+    // 从快照恢复时的单例创建顺序:
+    private volatile Map<String, Integer> restoredCreationOrder;
 
     public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver)
             throws IOException , URISyntaxException{
-        ApplicationContextUtils.setApplicationContext(this);
+        this(configClass, propertyResolver, Collections.emptyMap());
+    }
+
+    /**
+     * @param scopes 自定义作用域名称 -> Scope，在refresh之前注册，创建单例时即可使用
+     */
+    public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver, Map<String, Scope> scopes)
+            throws IOException , URISyntaxException{
         this.propertyResolver = propertyResolver;
-        Set<String> beanClassNames=scanForClassNames(configClass);
-        this.beans = creatBeanDefinitions(beanClassNames);
-        this.creatingBeanNames = new HashSet<>();
+        this.beans = new ConcurrentHashMap<>();
+        this.useGeneratedFactories = propertyResolver.getProperty("${summer.context.generated-factories:true}", boolean.class);
+        this.scopes.put(Scope.PROTOTYPE, new PrototypeScope());
+        this.scopes.put(Scope.POOLED, new PooledScope(propertyResolver.getProperty("${summer.context.pooled-scope.max-idle:16}", int.class)));
+        scopes.forEach(this::registerScope);
+        this.lifecycleThreads.add(Thread.currentThread());
+        ApplicationContextUtils.setApplicationContext(this);
+        boolean success = false;
+        try {
+            refresh(configClass);
+            success = true;
+        } finally {
+            this.state.set(success ? State.ACTIVE : State.CLOSED);
+            this.lifecycleThreads.remove(Thread.currentThread());
+            this.refreshed.countDown();
+        }
+    }
+
+    void refresh(Class<?> configClass) throws IOException , URISyntaxException{
+        if (this.propertyResolver.getProperty("${summer.context.startup-profiling:false}", boolean.class)) {
+            this.profiler = new StartupProfiler(this.propertyResolver.getProperty("${summer.context.startup-profiling-jfr:false}", boolean.class));
+        }
+        long start = profilerStart();
+        String snapshotFile = this.propertyResolver.getProperty("summer.context.snapshot-file");
+        Path snapshotPath = snapshotFile == null || snapshotFile.isEmpty() ? null : Paths.get(snapshotFile);
+        byte[] classPathHash = null;
+        ContextSnapshot snapshot = null;
+        if (snapshotPath != null) {
+            classPathHash = ContextSnapshot.computeHash(getContextClassLoader(), configClass, snapshotPath,
+                    this.propertyResolver.getProperty("${summer.context.lazy-init:false}"));
+            snapshot = readSnapshot(snapshotPath, classPathHash);
+        }
+        if (snapshot != null) {
+            // classpath未改变，跳过扫描和注解分析:
+            start = profilePhase(StartupReport.Phase.SCAN, start);
+            Map<String, BeanDefinition> defs = new HashMap<>();
+            snapshot.definitions.forEach(def -> addBeanDefinitions(defs, def));
+            this.beans.putAll(defs);
+            Map<String, Integer> creationOrder = new HashMap<>();
+            for (String name : snapshot.creationOrder) {
+                creationOrder.putIfAbsent(name, creationOrder.size());
+            }
+            this.restoredCreationOrder = creationOrder;
+        } else {
+            Set<String> beanClassNames=scanForClassNames(configClass);
+            start = profilePhase(StartupReport.Phase.SCAN, start);
+            this.beans.putAll(creatBeanDefinitions(beanClassNames));
+        }
+        // BeanDefinition已确定，构建按类型查找的索引:
+        this.typeIndex = new BeanTypeIndex(this.beans.values());
+        start = profilePhase(StartupReport.Phase.BEAN_DEFINITIONS, start);
         this.beans.values().stream().filter(this::isConfigurationDefinition).sorted().map(def->{
             createBeanAsEarlySingleton(def);
             return def.getName();
         }).collect(Collectors.toList());
+        start = profilePhase(StartupReport.Phase.CONFIGURATION_BEANS, start);
 
         List<BeanPostProcessor> processors = this.beans.values().stream().filter(this::isBeanPostProcessorDefinition).sorted().
         map(def -> {
             return (BeanPostProcessor) createBeanAsEarlySingleton(def);
         }).collect(Collectors.toList());
-        this.beanPostProcessors.addAll(processors);
+        this.beanPostProcessors = Collections.unmodifiableList(processors);
+        start = profilePhase(StartupReport.Phase.BEAN_POST_PROCESSORS, start);
         creatNormalBeans();
-        this.beans.values().forEach(def -> {
+        start = profilePhase(StartupReport.Phase.NORMAL_BEANS, start);
+        // 延迟初始化的Bean和非单例Bean在获取时才注入和初始化:
+        this.beans.values().stream().filter(this::isEagerSingleton).forEach(def -> {
             injectBean(def);
         });
+        start = profilePhase(StartupReport.Phase.INJECTION, start);
 
         // 调用init方法:
-        this.beans.values().forEach(def -> {
+        this.beans.values().stream().filter(this::isEagerSingleton).forEach(def -> {
             initBean(def);
+            def.setInit();
         });
+        profilePhase(StartupReport.Phase.INIT, start);
+        initEventMulticaster();
+        publishEvent(new ContextRefreshedEvent(this));
+        if (snapshotPath != null && snapshot == null) {
+            writeSnapshot(snapshotPath, classPathHash);
+        }
+        this.restoredCreationOrder = null;
+
+        StartupProfiler profiler = this.profiler;
+        if (profiler != null) {
+            // refresh结束后不再记录:
+            this.profiler = null;
+            this.startupReport = profiler.finish();
+            System.out.print(this.startupReport.format(this.propertyResolver.getProperty("${summer.context.startup-profiling-report-size:10}", int.class)));
+        }
     }
 
-    void injectBean(BeanDefinition def){
-        Object beanInstance = getProxiedInstance(def);
+    /**
+     * 登记所有单例Bean的@EventListener方法，异步投递使用名为applicationEventExecutor的Executor Bean，没有时自行创建线程池。
+     */
+    void initEventMulticaster() {
+        Executor executor = null;
+        BeanDefinition executorDef = findBeanDefinition(EVENT_EXECUTOR_BEAN_NAME);
+        if (executorDef != null && Executor.class.isAssignableFrom(executorDef.getBeanClass())) {
+            executor = (Executor) getBeanInstance(executorDef);
+        }
+        List<BeanDefinition> defs = this.beans.values().stream().filter(BeanDefinition::isSingleton).sorted().collect(Collectors.toList());
+        ApplicationEventMulticaster multicaster = new ApplicationEventMulticaster(defs, this::getBeanInstance, executor,
+                this.propertyResolver.getProperty("${summer.context.event-threads:0}", int.class));
+        List<Object> events;
+        synchronized (this.earlyEvents) {
+            this.eventMulticaster = multicaster;
+            events = new ArrayList<>(this.earlyEvents);
+            this.earlyEvents.clear();
+        }
+        events.forEach(multicaster::publish);
+    }
+
+    @Override
+    public void publishEvent(Object event) {
+        Objects.requireNonNull(event, "Event is null.");
+        assertReadable();
+        ApplicationEventMulticaster multicaster = this.eventMulticaster;
+        if (multicaster == null) {
+            synchronized (this.earlyEvents) {
+                multicaster = this.eventMulticaster;
+                if (multicaster == null) {
+                    // refresh期间监听器尚未登记:
+                    this.earlyEvents.add(event);
+                    return;
+                }
+            }
+        }
+        multicaster.publish(event);
+    }
+
+    ContextSnapshot readSnapshot(Path file, byte[] classPathHash) {
+        try {
+            return ContextSnapshot.read(file, classPathHash, getContextClassLoader());
+        } catch (Exception e) {
+            // 快照损坏或类已改变，重新扫描并覆盖快照:
+            System.out.println("Ignore context snapshot " + file + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存BeanDefinition快照，依赖的Bean名称已解析，恢复后按名称直接查找。
+     */
+    void writeSnapshot(Path file, byte[] classPathHash) {
+        List<BeanDefinition> defs = new ArrayList<>(this.beans.values());
+        Collections.sort(defs);
+        for (BeanDefinition def : defs) {
+            if (def.getCreationDependencies() == null) {
+                def.setCreationDependencies(resolveCreationDependencies(def));
+            }
+        }
+        try {
+            new ContextSnapshot(classPathHash, defs, new ArrayList<>(this.createdBeanNames)).write(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // 返回按名称解析后的创建依赖，无法分析的(如延迟初始化且依赖有误的Bean)返回null，恢复后仍在创建时分析:
+    BeanDependency[] resolveCreationDependencies(BeanDefinition def) {
+        if (def.getFactoryName() == null && def.getBeanClass().isAnnotationPresent(ConfigurationProperties.class)) {
+            return null;
+        }
+        try {
+            BeanDependency[] dependencies = getCreationDependencies(def, getCreationFactory(def)).clone();
+            for (int i = 0; i < dependencies.length; i++) {
+                BeanDependency dependency = dependencies[i];
+                if (dependency.isAutowired() && dependency.beanName.isEmpty()) {
+                    BeanDefinition dependsOnDef = findBeanDefinition(dependency.type);
+                    if (dependsOnDef != null) {
+                        dependencies[i] = BeanDependency.autowired(dependsOnDef.getName(), dependency.required, dependency.type);
+                    }
+                }
+            }
+            return dependencies;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // 开启startup-profiling时返回refresh的耗时报告，否则返回null:
+    public StartupReport getStartupReport() {
+        return this.startupReport;
+    }
+
+    long profilerStart() {
+        return this.profiler == null ? 0L : System.nanoTime();
+    }
+
+    // 记录阶段耗时并返回下一阶段的开始时间:
+    long profilePhase(StartupReport.Phase phase, long start) {
+        StartupProfiler profiler = this.profiler;
+        if (profiler == null) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        profiler.recordPhase(phase, now - start);
+        return now;
+    }
+
+    // 开始记录Bean创建的一个步骤，未开启时返回null:
+    StartupProfiler.BeanStep profileBeanStart() {
+        StartupProfiler profiler = this.profiler;
+        return profiler == null ? null : profiler.startBean();
+    }
+
+    void profileBean(BeanDefinition def, StartupReport.Step step, StartupProfiler.BeanStep started) {
+        StartupProfiler profiler = this.profiler;
+        if (profiler != null && started != null) {
+            profiler.recordBean(def, step, started);
+        }
+    }
+
+    boolean isEagerSingleton(BeanDefinition def) {
+        return def.isSingleton() && !def.isLazy();
+    }
+
+    public State getState() {
+        return this.state.get();
+    }
+
+    /**
+     * 读取Bean前检查状态：ACTIVE直接返回；其他线程在refresh期间等待其完成；关闭后抛出IllegalStateException。
+     */
+    void assertReadable() {
+        State current = this.state.get();
+        if (current == State.ACTIVE || this.lifecycleThreads.contains(Thread.currentThread())) {
+            return;
+        }
+        if (current == State.REFRESHING) {
+            try {
+                this.refreshed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for ApplicationContext refresh.", e);
+            }
+            current = this.state.get();
+            if (current == State.ACTIVE) {
+                return;
+            }
+        }
+        throw new IllegalStateException("ApplicationContext is " + current + ".");
+    }
+
+    // 在refresh/close使用的其他线程中执行:
+    void runAsLifecycleThread(Runnable task) {
+        Thread thread = Thread.currentThread();
+        this.lifecycleThreads.add(thread);
         try {
-            injectProperties(def,def.getBeanClass(),beanInstance);
-        }catch (ReflectiveOperationException e) {
-            throw new BeanCreationException(e);
+            task.run();
+        } finally {
+            this.lifecycleThreads.remove(thread);
         }
     }
 
+    void injectBean(BeanDefinition def){
+        StartupProfiler.BeanStep started = profileBeanStart();
+        Object beanInstance = getProxiedInstance(def);
+        injectProperties(def, beanInstance);
+        profileBean(def, StartupReport.Step.INJECT, started);
+    }
+
     void initBean(BeanDefinition def){
+        StartupProfiler.BeanStep started = profileBeanStart();
         callMethod(def.getInstance(), def.getInitMethod(), def.getInitMethodName());
+        profileBean(def, StartupReport.Step.INIT, started);
+
+    }
 
+    void injectProperties(BeanDefinition def, Object bean) {
+        GeneratedBeanFactory generated = getGeneratedBeanFactory(def.getBeanClass());
+        BeanDependency[] dependencies = generated == null ? null : generated.getInjectionDependencies();
+        if (dependencies != null) {
+            // 由生成的代码直接赋值字段或调用setter:
+            Object[] values = new Object[dependencies.length];
+            for (int i = 0; i < dependencies.length; i++) {
+                values[i] = resolveDependency(def, dependencies[i]);
+            }
+            try {
+                generated.inject(bean, values);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new BeanCreationException(String.format("Exception when inject bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+            }
+            return;
+        }
+        for (InjectionPlan.InjectionPoint point : InjectionPlan.forClass(def.getBeanClass()).points) {
+            Object value = resolveDependency(def, point.dependency);
+            if (value != null) {
+                point.inject(bean, value);
+            }
+        }
     }
-    void injectProperties(BeanDefinition def, Class<?> clazz, Object bean) throws ReflectiveOperationException{
-        for (Field f : clazz.getDeclaredFields()){
-            tryInjectProperties(def,clazz,bean,f);
+
+    /**
+     * 解析一个依赖：@Value返回属性值，@Autowired返回Bean实例，非必需且不存在时返回null。
+     */
+    Object resolveDependency(BeanDefinition def, BeanDependency dependency) {
+        Class<?> type = dependency.type;
+        if (dependency.isValue()) {
+            return this.propertyResolver.getRequiredProperty(dependency.propertyKey, type);
         }
-        for (Method m : clazz.getDeclaredMethods()){
-            tryInjectProperties(def,clazz,bean,m);
+        if (dependency.configurationProperties) {
+            return ConfigurationPropertiesBinder.bind(type, this.propertyResolver);
         }
-        Class<?> superClazz = clazz.getSuperclass();
-        if (superClazz != null) {
-            injectProperties(def, superClazz, bean);
+        BeanDefinition dependsOnDef = dependency.beanName.isEmpty() ? findBeanDefinition(type) : findBeanDefinition(dependency.beanName, type);
+        if (dependsOnDef == null && type == PropertyResolver.class) {
+            // 没有定义PropertyResolver Bean时注入容器的属性解析器，Bean可通过addChangeListener监听属性变化:
+            return this.propertyResolver;
         }
+        if (dependency.required && dependsOnDef == null){
+            throw new BeanCreationException(String.format("Missing autowired bean with type '%s' when create bean '%s': %s.", type.getName(),
+                    def.getName(), def.getBeanClass().getName()));
+        }
+        if (dependsOnDef == null) {
+            return null;
+        }
+        registerDependentBean(dependsOnDef, def);
+        return resolveAutowiredInstance(dependsOnDef, type);
     }
-    void tryInjectProperties(BeanDefinition def, Class<?> clazz, Object bean, AccessibleObject acc) throws ReflectiveOperationException{
-        Value value = acc.getAnnotation(Value.class);
-        Autowired autowired = acc.getAnnotation(Autowired.class);
-        if (value == null && autowired == null) {
-            return;
+
+    // 记录def依赖dependsOnDef，只记录单例之间的依赖:
+    void registerDependentBean(BeanDefinition dependsOnDef, BeanDefinition def) {
+        if (dependsOnDef != def && dependsOnDef.isSingleton() && def.isSingleton()) {
+            this.dependentBeanNames.computeIfAbsent(dependsOnDef.getName(), k -> ConcurrentHashMap.newKeySet()).add(def.getName());
         }
-        Field field = null;
-        Method method = null;
-        if (acc instanceof Field) {
-            Field f = (Field) acc;
-            checkFieldOrMethod(f);
-            f.setAccessible(true);
-            field = f;
-        }
-        if (acc instanceof Method) {
-            Method m = (Method) acc;
-            checkFieldOrMethod(m);
-            if (m.getParameters().length != 1) {
-                throw new BeanDefinitionException(
-                        String.format("Cannot inject a non-setter method %s for bean '%s': %s", m.getName(), def.getName(), def.getBeanClass().getName()));
-            }
-            m.setAccessible(true);
-            method = m;
-        }
-        String accessibleName = field != null ? field.getName() : method.getName();
-        Class<?> accessibleType = field != null ? field.getType() : method.getParameterTypes()[0];
-        if (value != null && autowired != null) {
-            throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value when inject %s.%s for bean '%s': %s",
-                    clazz.getSimpleName(), accessibleName, def.getName(), def.getBeanClass().getName()));
-        }
-        if (value != null) {
-            Object propValue = this.propertyResolver.getRequiredProperty(value.value(), accessibleType);
-            if (method != null) {
-                method.invoke(bean,propValue);
-            }
-            if (field != null){
-                field.set(bean,propValue);
-            }
-        }
-        if (autowired != null){
-            String name = autowired.name();
-            boolean required = autowired.value();
-            Object dependsOndef = name.isEmpty() ? findBean(accessibleType) : findBean(name, accessibleType);
-            if (required && dependsOndef == null){
-                throw new BeanCreationException(String.format("Missing autowired bean with type '%s' when create bean '%s': %s.", accessibleType.getName(),
-                        def.getName(), def.getBeanClass().getName()));
-            }
-            if (dependsOndef != null) {
-                if (field != null){
-                    field.set(bean,dependsOndef);
-                }
-                if (method != null){
-                    method.invoke(bean,dependsOndef);
+    }
+
+    GeneratedBeanFactory getGeneratedBeanFactory(Class<?> clazz) {
+        return this.useGeneratedFactories ? GeneratedBeanFactories.forClass(clazz) : null;
+    }
+
+    /**
+     * 返回注入到type的Bean实例，延迟初始化且尚未初始化的Bean注入代理，无法代理时立即初始化。
+     */
+    Object resolveAutowiredInstance(BeanDefinition def, Class<?> type) {
+        if (!def.isSingleton()) {
+            return getScopedInstance(def);
+        }
+        if (def.isLazy()) {
+            if (def.isInit()) {
+                return def.getInstance();
+            }
+            LazyProxyFactory factory = getLazyProxyFactory();
+            Object proxy = factory == null ? null : factory.createLazyProxy(type, () -> getLazyInstance(def));
+            return proxy != null ? proxy : getLazyInstance(def);
+        }
+        Object instance = def.getInstance();
+        return instance != null ? instance : createBeanAsEarlySingleton(def);
+    }
+
+    /**
+     * 返回延迟初始化的Bean，首次调用时创建、注入并初始化。
+     */
+    Object getLazyInstance(BeanDefinition def) {
+        if (!def.isInit()) {
+            // 所有延迟初始化共用一把锁，互相依赖的延迟Bean在不同线程中初始化时不会因加锁顺序相反而死锁:
+            synchronized (this.lazyInitLock) {
+                if (!def.isInit()) {
+                    // 已创建但未初始化，说明当前线程正在初始化该Bean(循环注入)，返回早期引用:
+                    if (def.getInstance() != null) {
+                        return def.getInstance();
+                    }
+                    createBeanAsEarlySingleton(def);
+                    injectBean(def);
+                    initBean(def);
+                    def.setInit();
                 }
             }
+        }
+        return def.getRequiredInstance();
+    }
 
+    Object getBeanInstance(BeanDefinition def) {
+        if (!def.isSingleton()) {
+            return getScopedInstance(def);
         }
+        return def.isLazy() ? getLazyInstance(def) : def.getRequiredInstance();
     }
-    void checkFieldOrMethod(Member m) {
-        int mod = m.getModifiers();
-        if (Modifier.isStatic(mod)) {
-            throw new BeanDefinitionException("Cannot inject static field: " + m);
+
+    Scope getScope(BeanDefinition def) {
+        Scope scope = this.scopes.get(def.getScope());
+        if (scope == null) {
+            throw new BeanCreationException(String.format("No scope registered with name '%s' for bean '%s'.", def.getScope(), def.getName()));
         }
-        if (Modifier.isFinal(mod)) {
-            if (m instanceof Field) {
-                throw new BeanDefinitionException("Cannot inject final field: " + m);
-            }
+        return scope;
+    }
+
+    Object getScopedInstance(BeanDefinition def) {
+        return getScope(def).get(def, () -> createScopedInstance(def));
+    }
+
+    /**
+     * 创建非单例Bean的新实例并完成注入和初始化，实例不保存在BeanDefinition中。
+     */
+    Object createScopedInstance(BeanDefinition def) {
+        Set<String> creating = this.creatingScopedBeanNames.get();
+        if (!creating.add(def.getName())) {
+            throw new UnsatisfiedDependencyException(String.format("Circular dependency detected when create bean '%s'", def.getName()));
+        }
+        try {
+            Object instance = createBeanInstance(def);
+            injectProperties(def, getProxiedInstance(def, instance));
+            callMethod(instance, def.getInitMethod(), def.getInitMethodName());
+            return instance;
+        } finally {
+            creating.remove(def.getName());
+        }
+    }
+
+    @Override
+    public void registerScope(String scopeName, Scope scope) {
+        if (Scope.SINGLETON.equals(scopeName) || Scope.PROTOTYPE.equals(scopeName)) {
+            throw new IllegalArgumentException("Cannot replace built-in scope: " + scopeName);
         }
+        this.scopes.put(scopeName, Objects.requireNonNull(scope, "Scope is null."));
     }
+
+    @Override
+    public void releaseBean(String name, Object bean) {
+        assertReadable();
+        BeanDefinition def = findBeanDefinition(name);
+        if (def == null) {
+            throw new NoSuchBeanDefinitionException(String.format("No bean defined with name '%s'.", name));
+        }
+        if (def.isSingleton()) {
+            return;
+        }
+        getScope(def).release(def, bean, instance -> destroyBean(def, instance));
+    }
+
+    void destroyBean(BeanDefinition def, Object instance) {
+        callMethod(getProxiedInstance(def, instance), def.getDestroyMethod(), def.getDestroyMethodName());
+    }
+
+    LazyProxyFactory getLazyProxyFactory() {
+        LazyProxyFactory factory = this.lazyProxyFactory;
+        if (factory == null) {
+            Iterator<LazyProxyFactory> it = ServiceLoader.load(LazyProxyFactory.class, getContextClassLoader()).iterator();
+            factory = it.hasNext() ? it.next() : NO_LAZY_PROXY;
+            this.lazyProxyFactory = factory;
+        }
+        return factory == NO_LAZY_PROXY ? null : factory;
+    }
+
     public Object createBeanAsEarlySingleton(BeanDefinition def){
+        // 并行创建时其他线程可能正在创建同一个Bean，按BeanDefinition加锁并等待其完成:
+        synchronized (def) {
+            if (def.getInstance() != null) {
+                return def.getInstance();
+            }
+            return doCreateBeanAsEarlySingleton(def);
+        }
+    }
+
+    Object doCreateBeanAsEarlySingleton(BeanDefinition def){
         if (!this.creatingBeanNames.add(def.getName())){
             throw new UnsatisfiedDependencyException(String.format("Circular dependency detected when create bean '%s'", def.getName()));
         }
-        Executable createFn =null;
-        if (def.getFactoryName() == null){
-            createFn = def.getConstructor();
+        def.setInstance(createBeanInstance(def));
+        this.createdBeanNames.add(def.getName());
+        return def.getInstance();
+    }
+
+    /**
+     * 调用构造方法或工厂方法创建实例，并经过BeanPostProcessor处理。
+     */
+    Object createBeanInstance(BeanDefinition def){
+        if (def.getFactoryName() == null && def.getBeanClass().isAnnotationPresent(ConfigurationProperties.class)) {
+            // 由属性绑定创建，构造方法参数按名称绑定:
+            StartupProfiler.BeanStep started = profileBeanStart();
+            Object instance = ConfigurationPropertiesBinder.bind(def.getBeanClass(), this.propertyResolver);
+            profileBean(def, StartupReport.Step.INSTANTIATE, started);
+            return postProcessBeforeInitialization(def, instance);
+        }
+        GeneratedBeanFactory generated = getCreationFactory(def);
+        BeanDependency[] dependencies = def.getCreationDependencies();
+        if (dependencies == null) {
+            dependencies = getCreationDependencies(def, generated);
+        }
+        Object[] args = new Object[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            args[i] = resolveDependency(def, dependencies[i]);
+        }
+        Object instance = null;
+        // 只计构造方法/工厂方法本身，不含依赖的创建:
+        StartupProfiler.BeanStep started = profileBeanStart();
+        if (def.getFactoryName() == null) {
+            try{
+                instance = generated != null ? generated.newInstance(args) : def.getConstructor().newInstance(args);
+            }
+            catch (Exception e){
+                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+            }
         }
         else {
-            createFn = def.getFactoryMethod();
+            BeanDefinition configDef = findBeanDefinition(def.getFactoryName());
+            registerDependentBean(configDef, def);
+            Object configInstance = configDef.getRequiredInstance();
+            try{
+                instance = generated != null ? generated.invokeFactoryMethod(configInstance, def.getName(), args)
+                        : def.getFactoryMethod().invoke(configInstance,args);
+            }
+            catch (Exception e){
+                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
+            }
+            ConfigurationProperties configurationProperties = def.getFactoryMethod().getAnnotation(ConfigurationProperties.class);
+            if (configurationProperties != null) {
+                ConfigurationPropertiesBinder.bind(instance, configurationProperties.prefix(), configurationProperties.ignoreUnknownFields(), this.propertyResolver);
+            }
+        }
+        profileBean(def, StartupReport.Step.INSTANTIATE, started);
+        return postProcessBeforeInitialization(def, instance);
+    }
+
+    // 返回可以创建def的生成工厂，不存在或无法生成(如private构造方法)时返回null:
+    GeneratedBeanFactory getCreationFactory(BeanDefinition def) {
+        if (def.getFactoryName() == null) {
+            GeneratedBeanFactory generated = getGeneratedBeanFactory(def.getBeanClass());
+            return generated != null && generated.getConstructorDependencies() != null ? generated : null;
+        }
+        GeneratedBeanFactory generated = getGeneratedBeanFactory(def.getFactoryMethod().getDeclaringClass());
+        return generated != null && generated.getFactoryMethodDependencies(def.getName()) != null ? generated : null;
+    }
+
+    /**
+     * 返回构造方法/工厂方法的参数依赖，有生成工厂时直接使用，否则反射分析参数注解。
+     */
+    BeanDependency[] getCreationDependencies(BeanDefinition def, GeneratedBeanFactory generated) {
+        if (generated != null) {
+            return def.getFactoryName() == null ? generated.getConstructorDependencies() : generated.getFactoryMethodDependencies(def.getName());
         }
-        final Parameter[] parameters = createFn.getParameters();
+        Executable createFn = def.getFactoryName() == null ? def.getConstructor() : def.getFactoryMethod();
+        final Class<?>[] types = createFn.getParameterTypes();
         final Annotation[][] parametersAnnos = createFn.getParameterAnnotations();
-        Object[] args = new Object[parameters.length];
-        for (int i = 0;i < parameters.length; i++){
-            final Parameter param = parameters[i];
+        final boolean isconfiguration = isConfigurationDefinition(def);
+        BeanDependency[] dependencies = new BeanDependency[types.length];
+        for (int i = 0; i < types.length; i++){
             final Annotation[] paraAnnos = parametersAnnos[i];
             final Value value = ClassUtils.getAnnotation(paraAnnos,Value.class);
             final Autowired autowired = ClassUtils.getAnnotation(paraAnnos,Autowired.class);
-
-            final boolean isconfiguration = isConfigurationDefinition(def);
             if (isconfiguration && autowired != null){
                 throw new BeanCreationException(
                         String.format("Cannot specify @Autowired when create @Configuration bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
@@ -173,66 +643,46 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                 throw new BeanCreationException(
                         String.format("Cannot specify both @Autowired and @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
             }
+            if (value == null && autowired == null && types[i].isAnnotationPresent(ConfigurationProperties.class)) {
+                // @ConfigurationProperties类型的参数直接绑定:
+                dependencies[i] = BeanDependency.configurationProperties(types[i]);
+                continue;
+            }
             if (value == null && autowired == null) {
                 throw new BeanCreationException(
                         String.format("Must specify @Autowired or @Value when create bean '%s': %s.", def.getName(), def.getBeanClass().getName()));
             }
-            final Class<?> type = param.getType();
-            if (value != null) {
-                args[i] = propertyResolver.getRequiredProperty(value.value(), type);
-            }
-            else {
-                String name = autowired.name();
-                boolean required = autowired.value();
-                BeanDefinition dependsOnDef = name.isEmpty()?findBeanDefinition(type):findBeanDefinition(name,type);
-                if (required && dependsOnDef == null){
-                    throw new BeanCreationException(String.format("Missing autowired bean with type '%s' when create bean '%s': %s.", type.getName(),
-                            def.getName(), def.getBeanClass().getName()));
-                }
-                if (dependsOnDef != null)  {
-                    Object autowiredBeanInstance = dependsOnDef.getInstance();
-                    if (autowiredBeanInstance == null){
-                        autowiredBeanInstance = createBeanAsEarlySingleton(dependsOnDef);
-                    }
-                    args[i]=autowiredBeanInstance;
-                }
-                else {
-                    args[i] = null;
-                }
-            }
+            dependencies[i] = value != null ? BeanDependency.value(value.value(), types[i])
+                    : BeanDependency.autowired(autowired.name(), autowired.value(), types[i]);
         }
-        Object instance = null;
-        if (def.getFactoryName() == null) {
-            try{
-                instance = def.getConstructor().newInstance(args);
-            }
-            catch (Exception e){
-                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
-            }
-        }
-        else {
-            Object configInstance = getBean(def.getFactoryName());
-            try{
-                instance = def.getFactoryMethod().invoke(configInstance,args);
-            }
-            catch (Exception e){
-                throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(), def.getBeanClass().getName()), e);
-            }
-        }
-        def.setInstance(instance);
+        return dependencies;
+    }
+
+    Object postProcessBeforeInitialization(BeanDefinition def, Object instance) {
+        StartupProfiler.BeanStep started = profileBeanStart();
         for (BeanPostProcessor processor : beanPostProcessors){
-            Object processed = processor.postProcessBeforeInitialization(def.getInstance(), def.getName());
-            if (def.getInstance() != processed) {
-                def.setInstance(processed);
+            Object processed = processor.postProcessBeforeInitialization(instance, def.getName());
+            if (instance != processed) {
+                instance = processed;
             }
         }
-        return def.getInstance();
+        profileBean(def, StartupReport.Step.POST_PROCESS, started);
+        return instance;
     }
 
     void creatNormalBeans(){
         List<BeanDefinition> defs = this.beans.values().stream().filter(def ->{
-            return def.getInstance() == null;
+            return def.getInstance() == null && isEagerSingleton(def);
         }).sorted().collect(Collectors.toList());
+        boolean parallel = this.propertyResolver.getProperty("${summer.context.parallel-refresh:false}", boolean.class);
+        if (parallel && createNormalBeansInParallel(defs)) {
+            return;
+        }
+        Map<String, Integer> creationOrder = this.restoredCreationOrder;
+        if (creationOrder != null) {
+            // 按快照中的创建顺序，依赖总是先于使用者创建:
+            defs.sort(Comparator.comparing(def -> creationOrder.getOrDefault(def.getName(), Integer.MAX_VALUE)));
+        }
         defs.forEach(def -> {
             if (def.getInstance() == null) {
                 createBeanAsEarlySingleton(def);
@@ -240,12 +690,104 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         });
     }
 
+    /**
+     * 按构造方法/工厂方法的依赖图并行创建Bean，依赖图存在环时返回false，由串行创建报告循环依赖。
+     */
+    boolean createNormalBeansInParallel(List<BeanDefinition> defs) {
+        Map<BeanDefinition, List<BeanDefinition>> graph = new LinkedHashMap<>();
+        for (BeanDefinition def : defs) {
+            graph.put(def, findCreationDependencies(def));
+        }
+        List<BeanDefinition> sorted = topologicalSort(graph);
+        if (sorted == null) {
+            return false;
+        }
+        int parallelism = this.propertyResolver.getProperty("${summer.context.parallel-refresh-threads:0}", int.class);
+        // 工作线程使用调用者的ClassLoader，ServiceLoader等按线程ClassLoader查找的逻辑才与串行创建一致:
+        ClassLoader classLoader = getContextClassLoader();
+        getLazyProxyFactory();
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        };
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), threadFactory, null, false);
+        try {
+            Map<BeanDefinition, CompletableFuture<Void>> futures = new HashMap<>();
+            for (BeanDefinition def : sorted) {
+                CompletableFuture<?>[] dependsOn = graph.get(def).stream().map(futures::get).toArray(CompletableFuture<?>[]::new);
+                futures.put(def, CompletableFuture.allOf(dependsOn).thenRunAsync(() -> runAsLifecycleThread(() -> createBeanAsEarlySingleton(def)), pool));
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BeanCreationException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return true;
+    }
+
+    // 返回def创建时依赖的、尚未创建的Bean:
+    List<BeanDefinition> findCreationDependencies(BeanDefinition def) {
+        List<BeanDefinition> dependsOn = new ArrayList<>();
+        if (def.getFactoryName() == null && def.getBeanClass().isAnnotationPresent(ConfigurationProperties.class)) {
+            return dependsOn;
+        }
+        BeanDependency[] dependencies = def.getCreationDependencies();
+        if (dependencies == null) {
+            dependencies = getCreationDependencies(def, getCreationFactory(def));
+        }
+        for (BeanDependency dependency : dependencies) {
+            if (!dependency.isAutowired()) {
+                continue;
+            }
+            BeanDefinition dependsOnDef = dependency.beanName.isEmpty() ? findBeanDefinition(dependency.type) : findBeanDefinition(dependency.beanName, dependency.type);
+            // 延迟初始化的Bean和非单例Bean在注入时解析，不参与依赖图:
+            if (dependsOnDef != null && dependsOnDef.getInstance() == null && isEagerSingleton(dependsOnDef) && !dependsOn.contains(dependsOnDef)) {
+                dependsOn.add(dependsOnDef);
+            }
+        }
+        return dependsOn;
+    }
+
+    static List<BeanDefinition> topologicalSort(Map<BeanDefinition, List<BeanDefinition>> graph) {
+        Map<BeanDefinition, Integer> inDegrees = new HashMap<>();
+        Map<BeanDefinition, List<BeanDefinition>> dependents = new HashMap<>();
+        for (Map.Entry<BeanDefinition, List<BeanDefinition>> entry : graph.entrySet()) {
+            inDegrees.put(entry.getKey(), entry.getValue().size());
+            for (BeanDefinition dependsOn : entry.getValue()) {
+                dependents.computeIfAbsent(dependsOn, k -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        Deque<BeanDefinition> ready = new ArrayDeque<>();
+        inDegrees.forEach((def, degree) -> {
+            if (degree == 0) {
+                ready.add(def);
+            }
+        });
+        List<BeanDefinition> sorted = new ArrayList<>(graph.size());
+        while (!ready.isEmpty()) {
+            BeanDefinition def = ready.poll();
+            sorted.add(def);
+            for (BeanDefinition dependent : dependents.getOrDefault(def, Collections.emptyList())) {
+                if (inDegrees.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return sorted.size() == graph.size() ? sorted : null;
+    }
+
     public Map<String, BeanDefinition> creatBeanDefinitions(Set<String> classNameSet){
         Map<String, BeanDefinition> defs = new HashMap<>();
         for (String className : classNameSet){
             Class<?> clazz = null;
             try{
-                clazz = Class.forName(className);
+                // 不执行静态初始化，非Bean类不会因扫描而被初始化:
+                clazz = Class.forName(className, false, getContextClassLoader());
             }catch(ClassNotFoundException e) {
                 throw new BeanCreationException(e);
             }
@@ -261,6 +803,8 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                                 ClassUtils.findAnnotationMethod(clazz, PostConstruct.class),
                                 // destroy method:
                                 ClassUtils.findAnnotationMethod(clazz, PreDestroy.class));
+                def.setLazy(isLazy(clazz, clazz.getAnnotation(Lazy.class)));
+                def.setScope(getScopeName(clazz, clazz.getAnnotation(myspringframe.annotation.Scope.class)));
                 addBeanDefinitions(defs, def);
                 Configuration configuration = ClassUtils.findAnnotation(clazz,Configuration.class);
                 if (configuration != null) {
@@ -271,6 +815,27 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         return defs;
     }
 
+    boolean isLazy(Class<?> beanClass, Lazy lazy) {
+        // @Configuration和BeanPostProcessor总是立即创建:
+        if (ClassUtils.findAnnotation(beanClass, Configuration.class) != null || BeanPostProcessor.class.isAssignableFrom(beanClass)) {
+            return false;
+        }
+        if (lazy != null) {
+            return lazy.value();
+        }
+        return this.propertyResolver.getProperty("${summer.context.lazy-init:false}", boolean.class);
+    }
+
+    String getScopeName(Class<?> beanClass, myspringframe.annotation.Scope scope) {
+        if (scope == null || scope.value().equals(Scope.SINGLETON)) {
+            return Scope.SINGLETON;
+        }
+        if (ClassUtils.findAnnotation(beanClass, Configuration.class) != null || BeanPostProcessor.class.isAssignableFrom(beanClass)) {
+            throw new BeanDefinitionException("@Configuration or BeanPostProcessor bean must be singleton: " + beanClass.getName());
+        }
+        return scope.value();
+    }
+
     public void scanFactoryMethods(String beanName,Class<?> clazz, Map<String, BeanDefinition> defs){
         for (Method method : clazz.getDeclaredMethods()){
             Bean bean = method.getAnnotation(Bean.class);
@@ -300,6 +865,8 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                         bean.destroyMethod().isEmpty() ? null : bean.destroyMethod(),
                         // @PostConstruct / @PreDestroy method:
                         null, null);
+                def.setLazy(isLazy(beanClass, method.getAnnotation(Lazy.class)));
+                def.setScope(getScopeName(beanClass, method.getAnnotation(myspringframe.annotation.Scope.class)));
                 addBeanDefinitions(defs,def);
             }
         }
@@ -309,19 +876,41 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         ComponentScan scan = ClassUtils.findAnnotation(configClass, ComponentScan.class);
         String[] scanPackages = scan == null || scan.value().length == 0 ?
                 new String[]{configClass.getPackage().getName()} : scan.value();
-        Set<String> classNameSet = new HashSet<>();
-        for (String pkg : scanPackages){
-            ResourceResolver rr = new ResourceResolver(pkg);
-            List<String> classList = rr.scan(
-                    res -> {
-                        String name = res.name;
-                        if (name.endsWith(".class")){
-                            return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
-                        }
-                        return null;
-                    }
-            );
-            classNameSet.addAll(classList);
+        Set<String> classNameSet = ConcurrentHashMap.newKeySet();
+        ComponentIndex index = null;
+        if (!this.propertyResolver.getProperty("${summer.context.ignore-component-index:false}", boolean.class)) {
+            index = ComponentIndex.load(getContextClassLoader());
+        }
+        // 按class文件字节预先过滤，只有标注了@Component的类才会被加载:
+        AnnotationClassFilter componentFilter = null;
+        if (this.propertyResolver.getProperty("${summer.context.bytecode-scan:false}", boolean.class)) {
+            componentFilter = new AnnotationClassFilter(getContextClassLoader(), Component.class.getName());
+        }
+        final AnnotationClassFilter filter = componentFilter;
+        int maxOpenJars = this.propertyResolver.getProperty("${summer.context.scan-max-open-jars:" + JarFileSystemCache.DEFAULT_MAX_OPEN + "}", int.class);
+        // 所有包共享打开的jar FileSystem，扫描结束后统一关闭:
+        try (JarFileSystemCache jarFileSystems = new JarFileSystemCache(maxOpenJars)) {
+            for (String pkg : scanPackages){
+                ResourceResolver rr = new ResourceResolver(pkg, jarFileSystems);
+                if (index != null) {
+                    // 有编译期索引的classpath根目录直接使用索引，没有索引的根目录(如未经summer-processor编译的应用)仍然扫描:
+                    classNameSet.addAll(index.getClassNames(pkg));
+                    rr.skipRoots(index::containsRoot);
+                }
+                rr.scan(
+                        res -> {
+                            String name = res.name;
+                            if (name.endsWith(".class")){
+                                if (filter != null && !filter.matches(name.replace("\\", "/"))) {
+                                    return null;
+                                }
+                                return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
+                            }
+                            return null;
+                        },
+                        classNameSet::add
+                );
+            }
         }
         Import importConfig = configClass.getAnnotation(Import.class);
         if (importConfig != null) {
@@ -333,6 +922,14 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         return classNameSet;
     }
 
+    ClassLoader getContextClassLoader() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = getClass().getClassLoader();
+        }
+        return cl;
+    }
+
     Constructor<?> getSuitableConstructor(Class<?> clazz) {
         Constructor<?>[] cons = clazz.getConstructors();
         if (cons.length == 0) {
@@ -379,6 +976,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     public List<BeanDefinition> findBeanDefinitions(Class<?> type) {
+        if (!type.isArray()) {
+            return this.typeIndex.getBeanDefinitions(type);
+        }
+        // 数组类型的协变无法通过索引表达，退回到遍历:
         return this.beans.values().stream()
                 // filter by type and sub-type:
                 .filter(def -> type.isAssignableFrom(def.getBeanClass()))
@@ -387,18 +988,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     public BeanDefinition findBeanDefinition(Class<?> type){
-        List<BeanDefinition> defs = findBeanDefinitions(type);
-        if (defs.isEmpty()){
-            return null;
-        }
-        if (defs.size() == 1) {
-            return defs.get(0);
-        }
-        List<BeanDefinition> primaryDefs = defs.stream().filter(def -> def.isPrimary()).collect(Collectors.toList());
-        if (primaryDefs.size() == 1) {
-            return primaryDefs.get(0);
+        if (!type.isArray()) {
+            return this.typeIndex.getBeanDefinition(type);
         }
-        return null;
+        return BeanTypeIndex.resolveUnique(findBeanDefinitions(type));
     }
 
     public boolean isConfigurationDefinition(BeanDefinition bean){
@@ -411,11 +1004,12 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     public  <T> T getBean(String factoryName){
-        BeanDefinition def = findBean(factoryName);
-        if (def == null || def.getInstance() == null) {
+        assertReadable();
+        BeanDefinition def = findBeanDefinition(factoryName);
+        if (def == null || (def.getInstance() == null && isEagerSingleton(def))) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with name '%s'.", factoryName));
         }
-        return (T) def.getInstance();
+        return (T) getBeanInstance(def);
     }
     public <T> T getBean(String name, Class<T> requiredType) {
         T t = findBean(name, requiredType);
@@ -426,37 +1020,42 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     public <T> T getBean(Class<T> requiredType) {
+        assertReadable();
         BeanDefinition def = findBeanDefinition(requiredType);
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with type '%s'.", requiredType));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     public <T> T findBean(String name, Class<T> requiredTyp){
+        assertReadable();
         BeanDefinition def = findBeanDefinition(name, requiredTyp);
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     public <T> T findBean (String name){
+        assertReadable();
         BeanDefinition def = findBeanDefinition(name);
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     public <T> T findBean (Class<T> requiredType){
+        assertReadable();
         BeanDefinition def = findBeanDefinition(requiredType);
         if (def == null) return null;
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     protected <T> List<T> findBeans(Class<T> requiredType) {
-        return findBeanDefinitions(requiredType).stream().map(def -> (T) def.getRequiredInstance()).collect(Collectors.toList());
+        assertReadable();
+        return findBeanDefinitions(requiredType).stream().map(def -> (T) getBeanInstance(def)).collect(Collectors.toList());
     }
 
     public void callMethod(Object beanInstance , Method method, String namedMethod){
@@ -478,7 +1077,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     Object getProxiedInstance(BeanDefinition def) {
-        Object beanInstance = def.getInstance();
+        return getProxiedInstance(def, def.getInstance());
+    }
+
+    Object getProxiedInstance(BeanDefinition def, Object beanInstance) {
         // 如果Proxy改变了原始Bean，又希望注入到原始Bean，则由BeanPostProcessor指定原始Bean:
         List<BeanPostProcessor> reversedBeanPostProcessors = new ArrayList<>(this.beanPostProcessors);
         Collections.reverse(reversedBeanPostProcessors);
@@ -496,25 +1098,161 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         return this.beans.containsKey(name);
     }
 
+    @Override
+    public PropertyResolver getPropertyResolver() {
+        return this.propertyResolver;
+    }
+
     @Override
     public <T> List<T>  getBeans(Class<T> requiredType) {
+        assertReadable();
         List<BeanDefinition> defs = findBeanDefinitions(requiredType);
         if (defs == null) return new ArrayList<>();
         List<T> list = new ArrayList<>(defs.size());
         for (BeanDefinition def : defs) {
-            list.add((T) def.getRequiredInstance());
+            list.add((T) getBeanInstance(def));
         }
         return list;
     }
 
+    /**
+     * 按依赖关系销毁单例Bean：注入了其他Bean的先销毁，互不依赖的并行销毁；
+     * 超过summer.context.shutdown-timeout后不再等待，并报告未完成的销毁方法。
+     */
+    void destroySingletons() {
+        Map<String, Integer> creationOrder = new HashMap<>();
+        for (String name : this.createdBeanNames) {
+            creationOrder.putIfAbsent(name, creationOrder.size());
+        }
+        // 未初始化的延迟Bean无需销毁，按创建顺序的逆序排列:
+        List<BeanDefinition> defs = this.beans.values().stream().filter(def -> def.isSingleton() && def.getInstance() != null)
+                .sorted(Comparator.comparing((BeanDefinition def) -> creationOrder.getOrDefault(def.getName(), -1)).reversed())
+                .collect(Collectors.toList());
+        if (defs.stream().noneMatch(def -> def.getDestroyMethod() != null || def.getDestroyMethodName() != null)) {
+            return;
+        }
+        Map<BeanDefinition, List<BeanDefinition>> graph = new LinkedHashMap<>();
+        for (BeanDefinition def : defs) {
+            List<BeanDefinition> dependents = new ArrayList<>();
+            for (String name : this.dependentBeanNames.getOrDefault(def.getName(), Collections.emptySet())) {
+                BeanDefinition dependent = this.beans.get(name);
+                if (dependent != null && dependent.getInstance() != null) {
+                    dependents.add(dependent);
+                }
+            }
+            graph.put(def, dependents);
+        }
+        List<BeanDefinition> sorted = topologicalSort(graph);
+        if (sorted == null) {
+            // 存在循环依赖时按创建顺序的逆序依次销毁:
+            sorted = defs;
+            graph.clear();
+            for (int i = 0; i < defs.size(); i++) {
+                graph.put(defs.get(i), i == 0 ? Collections.emptyList() : Collections.singletonList(defs.get(i - 1)));
+            }
+        }
+        Duration timeout = this.propertyResolver.getProperty("${summer.context.shutdown-timeout:PT30S}", Duration.class);
+        int parallelism = this.propertyResolver.getProperty("${summer.context.shutdown-threads:0}", int.class);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), r -> {
+            // 超时未完成的销毁方法不阻止JVM退出:
+            Thread t = new Thread(r, "summer-shutdown-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // 正在执行销毁方法的Bean -> 开始时间:
+        Map<BeanDefinition, Long> running = new ConcurrentHashMap<>();
+        Map<BeanDefinition, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        try {
+            for (BeanDefinition def : sorted) {
+                CompletableFuture<?>[] waitFor = graph.get(def).stream().map(futures::get).toArray(CompletableFuture<?>[]::new);
+                futures.put(def, CompletableFuture.allOf(waitFor).thenRunAsync(() -> runAsLifecycleThread(() -> destroySingleton(def, running)), executor));
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.out.print(formatShutdownTimeout(timeout, futures, running));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        } finally {
+            // 不中断超时的销毁方法，守护线程随JVM退出:
+            executor.shutdown();
+        }
+    }
+
+    void destroySingleton(BeanDefinition def, Map<BeanDefinition, Long> running) {
+        running.put(def, System.nanoTime());
+        try {
+            callMethod(getProxiedInstance(def), def.getDestroyMethod(), def.getDestroyMethodName());
+        } catch (RuntimeException e) {
+            // 一个Bean销毁失败不影响其他Bean:
+            System.out.println("Exception when destroy bean '" + def.getName() + "': " + e);
+            e.printStackTrace();
+        } finally {
+            running.remove(def);
+        }
+    }
+
+    String formatShutdownTimeout(Duration timeout, Map<BeanDefinition, CompletableFuture<Void>> futures, Map<BeanDefinition, Long> running) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Shutdown timed out after ").append(timeout.toMillis()).append(" ms, unfinished destroy methods:\n");
+        long now = System.nanoTime();
+        futures.forEach((def, future) -> {
+            if (future.isDone()) {
+                return;
+            }
+            Long start = running.get(def);
+            sb.append("  ").append(def.getName()).append(": ");
+            if (start != null) {
+                sb.append("running for ").append((now - start) / 1_000_000).append(" ms\n");
+            } else {
+                sb.append("not started\n");
+            }
+        });
+        return sb.toString();
+    }
+
     @Override
     public void close() {
-        this.beans.values().forEach(def -> {
-            final Object beanInstance = getProxiedInstance(def);
-            callMethod(beanInstance, def.getDestroyMethod(), def.getDestroyMethodName());
-        });
-        this.beans.clear();
-        ApplicationContextUtils.setApplicationContext(null);
+        // refresh期间由其他线程关闭时，等待refresh完成:
+        if (!this.lifecycleThreads.contains(Thread.currentThread())) {
+            try {
+                this.refreshed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for ApplicationContext refresh.", e);
+            }
+        }
+        // 只有一个线程能执行关闭，重复调用直接返回:
+        if (!this.state.compareAndSet(State.ACTIVE, State.CLOSING)) {
+            return;
+        }
+        this.lifecycleThreads.add(Thread.currentThread());
+        try {
+            ApplicationEventMulticaster multicaster = this.eventMulticaster;
+            if (multicaster != null) {
+                try {
+                    publishEvent(new ContextClosingEvent(this));
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+                // 投递剩余的批量/合并事件，等待异步监听器完成后再销毁Bean:
+                multicaster.close(this.propertyResolver.getProperty("${summer.context.shutdown-timeout:PT30S}", Duration.class));
+            }
+            // 先销毁作用域中缓存的实例，它们可能依赖单例Bean:
+            this.scopes.values().forEach(scope -> scope.destroy(this::destroyBean));
+            destroySingletons();
+        } finally {
+            this.beans.clear();
+            this.createdBeanNames.clear();
+            this.dependentBeanNames.clear();
+            this.eventMulticaster = null;
+            this.typeIndex = BeanTypeIndex.EMPTY;
+            ApplicationContextUtils.clearApplicationContext(this);
+            this.lifecycleThreads.remove(Thread.currentThread());
+            this.state.set(State.CLOSED);
+        }
     }
 
 
@@ -1,8 +1,10 @@
 package myspringframe.context;
 
+import myspringframe.io.propertyresolver.PropertyResolver;
+
 import java.util.List;
 
-public interface ApplicationContext extends AutoCloseable {
+public interface ApplicationContext extends ApplicationEventPublisher, AutoCloseable {
     boolean containsBean(String name);
 
     // 根据name返回唯一Bean，未找到抛出NoSuchBeanDefinitionException
@@ -17,6 +19,12 @@ public interface ApplicationContext extends AutoCloseable {
     // 根据type返回一组Bean，未找到返回空List
     <T> List<T> getBeans(Class<T> requiredType);
 
+    // 返回容器的属性解析器，可通过addChangeListener监听属性变化
+    PropertyResolver getPropertyResolver();
+
+    // 将非单例Bean的实例归还给其作用域，单例Bean忽略
+    void releaseBean(String name, Object bean);
+
     // 关闭并执行所有bean的destroy方法
     void close();
 }
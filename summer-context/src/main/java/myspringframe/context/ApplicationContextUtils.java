@@ -5,7 +5,7 @@ import java.util.Objects;
 public class ApplicationContextUtils
 {
 
-    private static ApplicationContext applicationContext = null;
+    private static volatile ApplicationContext applicationContext = null;
     public static ApplicationContext getRequiredApplicationContext() {
         return Objects.requireNonNull(getApplicationContext(), "ApplicationContext is not set.");
     }
@@ -14,8 +14,15 @@ public class ApplicationContextUtils
         return applicationContext;
     }
 
-    static void setApplicationContext(ApplicationContext ctx) {
+    static synchronized void setApplicationContext(ApplicationContext ctx) {
         applicationContext = ctx;
     }
 
+    // 只清除仍指向ctx的引用，避免覆盖之后创建的ApplicationContext:
+    static synchronized void clearApplicationContext(ApplicationContext ctx) {
+        if (applicationContext == ctx) {
+            applicationContext = null;
+        }
+    }
+
 }
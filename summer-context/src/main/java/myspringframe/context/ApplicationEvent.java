@@ -0,0 +1,19 @@
+package myspringframe.context;
+
+import java.util.EventObject;
+
+/**
+ * 事件基类，也可以发布任意对象作为事件。
+ */
+public class ApplicationEvent extends EventObject {
+    private final long timestamp;
+
+    public ApplicationEvent(Object source) {
+        super(source);
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+}
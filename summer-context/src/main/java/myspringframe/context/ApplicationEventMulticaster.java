@@ -0,0 +1,281 @@
+package myspringframe.context;
+
+import myspringframe.Utils.ClassUtils;
+import myspringframe.annotation.EventListener;
+import myspringframe.annotation.Order;
+import myspringframe.exception.ApplicationEventException;
+import myspringframe.exception.BeanDefinitionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 分发事件到@EventListener方法：监听方法在refresh结束时登记一次，按事件类型缓存排好序的监听器，发布时不再反射查找。
+ */
+class ApplicationEventMulticaster {
+    static final MethodType LISTENER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    // 每个类的@EventListener方法只分析一次，子类覆写的方法只保留子类的:
+    static final ClassValue<List<Method>> LISTENER_METHODS = new ClassValue<List<Method>>() {
+        @Override
+        protected List<Method> computeValue(Class<?> type) {
+            List<Method> methods = new ArrayList<>();
+            Set<String> signatures = new HashSet<>();
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Method m : clazz.getDeclaredMethods()) {
+                    if (m.isAnnotationPresent(EventListener.class) && signatures.add(m.getName() + Arrays.toString(m.getParameterTypes()))) {
+                        methods.add(m);
+                    }
+                }
+            }
+            return Collections.unmodifiableList(methods);
+        }
+    };
+
+    final List<Listener> listeners = new ArrayList<>();
+    // 事件类型 -> 匹配的监听器:
+    final Map<Class<?>, Listener[]> listenerCache = new ConcurrentHashMap<>();
+    final Function<BeanDefinition, Object> instanceResolver;
+    final Executor executor;
+    // 未指定Executor时自行创建，关闭时一并关闭:
+    final ExecutorService ownedExecutor;
+    final ScheduledExecutorService scheduler;
+    volatile boolean closed;
+
+    /**
+     * @param executor 异步投递使用的Executor，为null时创建threads个守护线程
+     */
+    ApplicationEventMulticaster(Collection<BeanDefinition> defs, Function<BeanDefinition, Object> instanceResolver, Executor executor, int threads) {
+        this.instanceResolver = instanceResolver;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (BeanDefinition def : defs) {
+            for (Method m : LISTENER_METHODS.get(def.getBeanClass())) {
+                this.listeners.add(new Listener(lookup, def, m));
+            }
+        }
+        boolean async = this.listeners.stream().anyMatch(l -> !l.isSync());
+        if (executor == null && async) {
+            this.ownedExecutor = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                    daemonThreadFactory("summer-event-"));
+            executor = this.ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+        }
+        this.executor = executor;
+        this.scheduler = this.listeners.stream().anyMatch(l -> !l.isSync() && l.delay > 0)
+                ? Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("summer-event-timer-")) : null;
+    }
+
+    static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger number = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + number.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    void publish(Object event) {
+        Listener[] matched = this.listenerCache.computeIfAbsent(event.getClass(), this::findListeners);
+        for (Listener listener : matched) {
+            if (this.closed) {
+                // 关闭后不再异步投递，在当前线程调用:
+                invokeAndLog(listener, listener.batchSize > 0 ? Collections.singletonList(event) : event);
+            } else if (listener.batchSize > 0) {
+                addToBatch(listener, event);
+            } else if (listener.coalesce) {
+                coalesce(listener, event);
+            } else if (listener.async) {
+                this.executor.execute(() -> invokeAndLog(listener, event));
+            } else {
+                invoke(listener, event);
+            }
+        }
+    }
+
+    Listener[] findListeners(Class<?> eventClass) {
+        List<Listener> matched = new ArrayList<>();
+        for (Listener listener : this.listeners) {
+            if (listener.eventType.isAssignableFrom(eventClass)) {
+                matched.add(listener);
+            }
+        }
+        // 稳定排序，相同@Order时按Bean的顺序:
+        matched.sort(Comparator.comparingInt(l -> l.order));
+        return matched.toArray(new Listener[0]);
+    }
+
+    void addToBatch(Listener listener, Object event) {
+        List<Object> full = null;
+        synchronized (listener) {
+            if (listener.batch == null) {
+                List<Object> batch = new ArrayList<>(listener.batchSize);
+                listener.batch = batch;
+                this.scheduler.schedule(() -> flushBatch(listener, batch), listener.delay, TimeUnit.MILLISECONDS);
+            }
+            listener.batch.add(event);
+            if (listener.batch.size() >= listener.batchSize) {
+                full = listener.batch;
+                listener.batch = null;
+            }
+        }
+        if (full != null) {
+            List<Object> events = Collections.unmodifiableList(full);
+            this.executor.execute(() -> invokeAndLog(listener, events));
+        }
+    }
+
+    // 只投递定时时的那一批，已因数量满而投递的忽略:
+    void flushBatch(Listener listener, List<Object> batch) {
+        synchronized (listener) {
+            if (listener.batch != batch) {
+                return;
+            }
+            listener.batch = null;
+        }
+        List<Object> events = Collections.unmodifiableList(batch);
+        this.executor.execute(() -> invokeAndLog(listener, events));
+    }
+
+    void coalesce(Listener listener, Object event) {
+        if (listener.latest.getAndSet(event) != null) {
+            // 已有等待投递的事件，替换为最新的:
+            return;
+        }
+        Runnable flush = () -> {
+            Object latest = listener.latest.getAndSet(null);
+            if (latest != null) {
+                invokeAndLog(listener, latest);
+            }
+        };
+        if (listener.delay > 0) {
+            this.scheduler.schedule(() -> this.executor.execute(flush), listener.delay, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor.execute(flush);
+        }
+    }
+
+    void invoke(Listener listener, Object arg) {
+        Object target = this.instanceResolver.apply(listener.def);
+        try {
+            listener.handle.invokeExact(target, arg);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ApplicationEventException(String.format("Exception in event listener %s.%s", listener.def.getName(), listener.method.getName()), e);
+        }
+    }
+
+    // 异步调用的异常无法抛给发布者，打印后继续:
+    void invokeAndLog(Listener listener, Object arg) {
+        try {
+            invoke(listener, arg);
+        } catch (RuntimeException e) {
+            System.out.println("Exception in event listener " + listener.def.getName() + "." + listener.method.getName() + ": " + e);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 在当前线程投递所有尚未投递的批量和合并事件，再关闭线程池并等待异步监听器完成。
+     */
+    void close(Duration timeout) {
+        this.closed = true;
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        for (Listener listener : this.listeners) {
+            List<Object> batch;
+            synchronized (listener) {
+                batch = listener.batch;
+                listener.batch = null;
+            }
+            if (batch != null) {
+                invokeAndLog(listener, Collections.unmodifiableList(batch));
+            }
+            Object latest = listener.latest.getAndSet(null);
+            if (latest != null) {
+                invokeAndLog(listener, latest);
+            }
+        }
+        if (this.ownedExecutor != null) {
+            this.ownedExecutor.shutdown();
+            try {
+                this.ownedExecutor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static class Listener {
+        final BeanDefinition def;
+        final Method method;
+        // 批量投递时为List的元素类型:
+        final Class<?> eventType;
+        // (Object bean, Object event)void:
+        final MethodHandle handle;
+        final int order;
+        final boolean async;
+        final int batchSize;
+        final boolean coalesce;
+        final long delay;
+        // 正在累积的一批事件，由Listener自身加锁:
+        List<Object> batch;
+        // 等待合并投递的最新事件:
+        final AtomicReference<Object> latest = new AtomicReference<>();
+
+        Listener(MethodHandles.Lookup lookup, BeanDefinition def, Method m) {
+            EventListener anno = m.getAnnotation(EventListener.class);
+            if (Modifier.isStatic(m.getModifiers()) || m.getParameterCount() != 1) {
+                throw new BeanDefinitionException("@EventListener method must be non-static with one parameter: " + m);
+            }
+            if (anno.batchSize() > 0 && anno.coalesce()) {
+                throw new BeanDefinitionException("Cannot specify both batchSize and coalesce on @EventListener method: " + m);
+            }
+            // 没有delay时不足batchSize的一批永远不会投递:
+            if (anno.batchSize() > 0 && anno.delay() <= 0) {
+                throw new BeanDefinitionException("@EventListener method with batchSize must specify a positive delay: " + m);
+            }
+            this.def = def;
+            this.method = m;
+            this.async = anno.async();
+            this.batchSize = anno.batchSize();
+            this.coalesce = anno.coalesce();
+            this.delay = anno.delay();
+            Order order = m.getAnnotation(Order.class);
+            this.order = order == null ? Integer.MAX_VALUE : order.value();
+            Class<?> paramType = m.getParameterTypes()[0];
+            if (paramType.isPrimitive()) {
+                throw new BeanDefinitionException("@EventListener method must not accept a primitive type: " + m);
+            }
+            if (this.batchSize > 0) {
+                if (paramType != List.class && paramType != Collection.class) {
+                    throw new BeanDefinitionException("@EventListener method with batchSize must accept a List: " + m);
+                }
+                this.eventType = ClassUtils.getRawClass(ClassUtils.getTypeArgument(m.getGenericParameterTypes()[0], 0));
+            } else {
+                this.eventType = paramType;
+            }
+            try {
+                m.setAccessible(true);
+                this.handle = lookup.unreflect(m).asType(LISTENER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new BeanDefinitionException("Cannot access @EventListener method: " + m, e);
+            }
+        }
+
+        boolean isSync() {
+            return !this.async && this.batchSize <= 0 && !this.coalesce;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package myspringframe.context;
+
+public interface ApplicationEventPublisher {
+    // 发布事件，同步监听器在当前线程调用，异步监听器提交到事件线程池
+    void publishEvent(Object event);
+}
@@ -0,0 +1,40 @@
+package myspringframe.context;
+
+import jdk.jfr.*;
+
+@Name("myspringframe.BeanCreation")
+@Label("Bean Creation")
+@Category("Summer Framework")
+@StackTrace(false)
+class BeanCreationEvent extends Event {
+
+    @Label("Bean Name")
+    String beanName;
+
+    @Label("Bean Class")
+    Class<?> beanClass;
+
+    @Label("Step")
+    String step;
+
+    static class Sink implements StartupProfiler.EventSink {
+        @Override
+        public Object begin() {
+            BeanCreationEvent event = new BeanCreationEvent();
+            if (!event.isEnabled()) {
+                return null;
+            }
+            event.begin();
+            return event;
+        }
+
+        @Override
+        public void commit(Object event, BeanDefinition def, StartupReport.Step step) {
+            BeanCreationEvent e = (BeanCreationEvent) event;
+            e.beanName = def.getName();
+            e.beanClass = def.getBeanClass();
+            e.step = step.name();
+            e.commit();
+        }
+    }
+}
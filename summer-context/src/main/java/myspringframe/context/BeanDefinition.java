@@ -13,14 +13,18 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     Constructor<?> constructor;
     String factoryName;
     Method factoryMethod;
-    Object instance = null;
+    volatile Object instance = null;
     int order;
     boolean primary;
+    boolean lazy;
+    String scope = Scope.SINGLETON;
     String initMethodName;
     Method initMethod;
     String destroyMethodName;
     Method destroyMethod;
-    private boolean init = false;
+    private volatile boolean init = false;
+    // 从快照恢复的构造方法/工厂方法依赖，为null时在创建时分析:
+    BeanDependency[] creationDependencies;
     public BeanDefinition(String name, Class<?> beanClass, Constructor<?> constructor, int order, boolean primary, String initMethodName,
                           String destroyMethodName, Method initMethod, Method destroyMethod) {
         this.name = name;
@@ -134,11 +138,39 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
         return this.primary;
     }
 
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    public String getScope() {
+        return this.scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public BeanDependency[] getCreationDependencies() {
+        return this.creationDependencies;
+    }
+
+    public void setCreationDependencies(BeanDependency[] creationDependencies) {
+        this.creationDependencies = creationDependencies;
+    }
+
+    public boolean isSingleton() {
+        return Scope.SINGLETON.equals(this.scope);
+    }
+
     @Override
     public String toString() {
         return "BeanDefinition [name=" + name + ", beanClass=" + beanClass.getName() + ", factory=" + getCreateDetail() + ", init-method="
                 + (initMethod == null ? "null" : initMethod.getName()) + ", destroy-method=" + (destroyMethod == null ? "null" : destroyMethod.getName())
-                + ", primary=" + primary + ", instance=" + instance + "]";
+                + ", primary=" + primary + ", lazy=" + lazy + ", scope=" + scope + ", instance=" + instance + "]";
     }
 
     String getCreateDetail() {
@@ -0,0 +1,42 @@
+package myspringframe.context;
+
+/**
+ * 构造方法/工厂方法参数或注入点依赖的Bean或属性，由反射分析或编译期生成的GeneratedBeanFactory提供。
+ */
+public final class BeanDependency {
+    // @Value的属性表达式，其他情况为null:
+    final String propertyKey;
+    // @Autowired指定的Bean名称，未指定时为空字符串:
+    final String beanName;
+    final boolean required;
+    final boolean configurationProperties;
+    final Class<?> type;
+
+    BeanDependency(String propertyKey, String beanName, boolean required, boolean configurationProperties, Class<?> type) {
+        this.propertyKey = propertyKey;
+        this.beanName = beanName;
+        this.required = required;
+        this.configurationProperties = configurationProperties;
+        this.type = type;
+    }
+
+    public static BeanDependency value(String propertyKey, Class<?> type) {
+        return new BeanDependency(propertyKey, null, true, false, type);
+    }
+
+    public static BeanDependency autowired(String beanName, boolean required, Class<?> type) {
+        return new BeanDependency(null, beanName, required, false, type);
+    }
+
+    public static BeanDependency configurationProperties(Class<?> type) {
+        return new BeanDependency(null, null, true, true, type);
+    }
+
+    boolean isValue() {
+        return this.propertyKey != null;
+    }
+
+    boolean isAutowired() {
+        return this.beanName != null;
+    }
+}
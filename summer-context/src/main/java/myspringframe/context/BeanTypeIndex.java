@@ -0,0 +1,84 @@
+package myspringframe.context;
+
+import java.util.*;
+
+/**
+ * 按类型查找BeanDefinition的索引，BeanDefinition确定后一次性构建，之后只读。
+ */
+class BeanTypeIndex {
+    static final BeanTypeIndex EMPTY = new BeanTypeIndex(Collections.emptyList());
+
+    // 类型(含所有父类和接口) -> 已排序的BeanDefinition:
+    private final Map<Class<?>, List<BeanDefinition>> typeToDefs;
+    // 类型 -> 唯一或@Primary的BeanDefinition，无法确定时不存在:
+    private final Map<Class<?>, BeanDefinition> typeToUnique;
+
+    BeanTypeIndex(Collection<BeanDefinition> defs) {
+        Map<Class<?>, List<BeanDefinition>> index = new HashMap<>();
+        for (BeanDefinition def : defs) {
+            for (Class<?> type : collectTypes(def.getBeanClass())) {
+                index.computeIfAbsent(type, k -> new ArrayList<>()).add(def);
+            }
+        }
+        Map<Class<?>, List<BeanDefinition>> sortedIndex = new HashMap<>(index.size() * 2);
+        Map<Class<?>, BeanDefinition> uniqueIndex = new HashMap<>(index.size() * 2);
+        for (Map.Entry<Class<?>, List<BeanDefinition>> entry : index.entrySet()) {
+            List<BeanDefinition> list = entry.getValue();
+            Collections.sort(list);
+            sortedIndex.put(entry.getKey(), Collections.unmodifiableList(list));
+            BeanDefinition unique = resolveUnique(list);
+            if (unique != null) {
+                uniqueIndex.put(entry.getKey(), unique);
+            }
+        }
+        this.typeToDefs = sortedIndex;
+        this.typeToUnique = uniqueIndex;
+    }
+
+    List<BeanDefinition> getBeanDefinitions(Class<?> type) {
+        List<BeanDefinition> defs = this.typeToDefs.get(type);
+        return defs == null ? Collections.emptyList() : defs;
+    }
+
+    BeanDefinition getBeanDefinition(Class<?> type) {
+        return this.typeToUnique.get(type);
+    }
+
+    static BeanDefinition resolveUnique(List<BeanDefinition> defs) {
+        if (defs.isEmpty()) {
+            return null;
+        }
+        if (defs.size() == 1) {
+            return defs.get(0);
+        }
+        BeanDefinition primary = null;
+        for (BeanDefinition def : defs) {
+            if (def.isPrimary()) {
+                if (primary != null) {
+                    return null;
+                }
+                primary = def;
+            }
+        }
+        return primary;
+    }
+
+    static Set<Class<?>> collectTypes(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(clazz);
+        while (!queue.isEmpty()) {
+            Class<?> c = queue.poll();
+            if (!types.add(c)) {
+                continue;
+            }
+            if (c.getSuperclass() != null) {
+                queue.add(c.getSuperclass());
+            }
+            queue.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        // 接口类型也可以被Object引用:
+        types.add(Object.class);
+        return types;
+    }
+}
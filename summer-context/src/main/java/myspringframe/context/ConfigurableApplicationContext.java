@@ -13,4 +13,7 @@ public interface ConfigurableApplicationContext extends ApplicationContext{
     BeanDefinition findBeanDefinition(String name, Class<?> requiredType);
 
     Object createBeanAsEarlySingleton(BeanDefinition def);
+
+    // 注册自定义作用域，不能替换singleton和prototype；单例依赖的自定义作用域需通过AnnotationConfigApplicationContext的构造方法在refresh之前注册
+    void registerScope(String scopeName, Scope scope);
 }
@@ -0,0 +1,14 @@
+package myspringframe.context;
+
+/**
+ * close开始、销毁Bean之前发布。
+ */
+public class ContextClosingEvent extends ApplicationEvent {
+    public ContextClosingEvent(ApplicationContext source) {
+        super(source);
+    }
+
+    public ApplicationContext getApplicationContext() {
+        return (ApplicationContext) getSource();
+    }
+}
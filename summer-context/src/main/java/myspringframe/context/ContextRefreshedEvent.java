@@ -0,0 +1,14 @@
+package myspringframe.context;
+
+/**
+ * refresh完成、所有立即初始化的Bean已初始化后发布。
+ */
+public class ContextRefreshedEvent extends ApplicationEvent {
+    public ContextRefreshedEvent(ApplicationContext source) {
+        super(source);
+    }
+
+    public ApplicationContext getApplicationContext() {
+        return (ApplicationContext) getSource();
+    }
+}
@@ -0,0 +1,308 @@
+package myspringframe.context;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * refresh成功后保存的BeanDefinition快照：Bean定义、选定的构造方法/工厂方法、已解析的依赖和单例的创建顺序。
+ * classpath哈希不变时，下次启动直接从快照重建BeanDefinition，跳过扫描和注解分析。
+ */
+class ContextSnapshot {
+    static final int MAGIC = 0x53554d53;
+    static final int VERSION = 1;
+
+    static final byte VALUE = 0;
+    static final byte AUTOWIRED = 1;
+    static final byte CONFIGURATION_PROPERTIES = 2;
+
+    static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> c : new Class<?>[] { boolean.class, byte.class, short.class, char.class, int.class, long.class, float.class, double.class, void.class }) {
+            PRIMITIVES.put(c.getName(), c);
+        }
+    }
+
+    final byte[] hash;
+    final List<BeanDefinition> definitions;
+    // 单例Bean的实际创建顺序，按此顺序创建时不需要递归创建依赖:
+    final List<String> creationOrder;
+
+    ContextSnapshot(byte[] hash, List<BeanDefinition> definitions, List<String> creationOrder) {
+        this.hash = hash;
+        this.definitions = definitions;
+        this.creationOrder = creationOrder;
+    }
+
+    /**
+     * 计算配置类、影响BeanDefinition的属性和classpath中所有文件(路径、大小、修改时间)的哈希，快照文件本身除外。
+     */
+    static byte[] computeHash(ClassLoader cl, Class<?> configClass, Path snapshotFile, String... properties) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, configClass.getName());
+        for (String property : properties) {
+            update(digest, property);
+        }
+        Path excluded = snapshotFile.toAbsolutePath().normalize();
+        for (Path entry : getClassPathEntries(cl)) {
+            update(digest, entry.toString());
+            if (Files.isDirectory(entry)) {
+                List<String> files = new ArrayList<>();
+                Files.walkFileTree(entry, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (isSnapshotFile(file.toAbsolutePath().normalize(), excluded)) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        files.add(entry.relativize(file) + ":" + attrs.size() + ":" + attrs.lastModifiedTime().toMillis());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+                // 遍历顺序与文件系统有关，排序后再计算:
+                Collections.sort(files);
+                files.forEach(f -> update(digest, f));
+            } else if (Files.exists(entry)) {
+                update(digest, Files.size(entry) + ":" + Files.getLastModifiedTime(entry).toMillis());
+            }
+        }
+        return digest.digest();
+    }
+
+    static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    static Set<Path> getClassPathEntries(ClassLoader cl) {
+        Set<Path> entries = new LinkedHashSet<>();
+        for (ClassLoader loader = cl; loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        try {
+                            entries.add(Paths.get(url.toURI()).toAbsolutePath());
+                        } catch (Exception e) {
+                            entries.add(Paths.get(url.getPath()).toAbsolutePath());
+                        }
+                    }
+                }
+            }
+        }
+        for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!path.isEmpty()) {
+                entries.add(Paths.get(path).toAbsolutePath());
+            }
+        }
+        return entries;
+    }
+
+    // 快照文件本身及write()在同一目录中创建的临时文件(快照文件名 + 随机数 + .tmp):
+    static boolean isSnapshotFile(Path file, Path snapshotFile) {
+        if (file.equals(snapshotFile)) {
+            return true;
+        }
+        String name = file.getFileName().toString();
+        String prefix = snapshotFile.getFileName().toString();
+        if (!Objects.equals(file.getParent(), snapshotFile.getParent()) || !name.startsWith(prefix) || !name.endsWith(".tmp")) {
+            return false;
+        }
+        String random = name.substring(prefix.length(), name.length() - ".tmp".length());
+        return !random.isEmpty() && random.chars().allMatch(Character::isDigit);
+    }
+
+    void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(this.hash.length);
+                out.write(this.hash);
+                out.writeInt(this.definitions.size());
+                for (BeanDefinition def : this.definitions) {
+                    writeDefinition(out, def);
+                }
+                out.writeInt(this.creationOrder.size());
+                for (String name : this.creationOrder) {
+                    out.writeUTF(name);
+                }
+            }
+            // 先写临时文件再替换，其他进程不会读到写了一半的快照:
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static void writeDefinition(DataOutputStream out, BeanDefinition def) throws IOException {
+        out.writeUTF(def.getName());
+        out.writeUTF(def.getBeanClass().getName());
+        if (def.getFactoryName() == null) {
+            out.writeBoolean(false);
+            writeTypes(out, def.getConstructor().getParameterTypes());
+        } else {
+            out.writeBoolean(true);
+            out.writeUTF(def.getFactoryName());
+            out.writeUTF(def.getFactoryMethod().getDeclaringClass().getName());
+            out.writeUTF(def.getFactoryMethod().getName());
+            writeTypes(out, def.getFactoryMethod().getParameterTypes());
+        }
+        out.writeInt(def.order);
+        out.writeBoolean(def.isPrimary());
+        out.writeBoolean(def.isLazy());
+        out.writeUTF(def.getScope());
+        writeNullable(out, def.getInitMethodName());
+        writeNullable(out, def.getDestroyMethodName());
+        writeNullable(out, def.getInitMethod() == null ? null : def.getInitMethod().getName());
+        writeNullable(out, def.getDestroyMethod() == null ? null : def.getDestroyMethod().getName());
+        BeanDependency[] dependencies = def.getCreationDependencies();
+        out.writeInt(dependencies == null ? -1 : dependencies.length);
+        if (dependencies != null) {
+            for (BeanDependency dependency : dependencies) {
+                if (dependency.isValue()) {
+                    out.writeByte(VALUE);
+                    out.writeUTF(dependency.propertyKey);
+                } else if (dependency.isAutowired()) {
+                    out.writeByte(AUTOWIRED);
+                    out.writeUTF(dependency.beanName);
+                    out.writeBoolean(dependency.required);
+                } else {
+                    out.writeByte(CONFIGURATION_PROPERTIES);
+                }
+                out.writeUTF(dependency.type.getName());
+            }
+        }
+    }
+
+    static void writeTypes(DataOutputStream out, Class<?>[] types) throws IOException {
+        out.writeInt(types.length);
+        for (Class<?> type : types) {
+            out.writeUTF(type.getName());
+        }
+    }
+
+    static void writeNullable(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    /**
+     * 读取快照，文件不存在或哈希不一致时返回null，类或方法已不存在时抛出异常。
+     */
+    static ContextSnapshot read(Path file, byte[] expectedHash, ClassLoader cl) throws IOException, ReflectiveOperationException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            byte[] hash = new byte[in.readInt()];
+            in.readFully(hash);
+            if (!Arrays.equals(hash, expectedHash)) {
+                return null;
+            }
+            int size = in.readInt();
+            List<BeanDefinition> defs = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                defs.add(readDefinition(in, cl));
+            }
+            size = in.readInt();
+            List<String> creationOrder = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                creationOrder.add(in.readUTF());
+            }
+            return new ContextSnapshot(hash, defs, creationOrder);
+        }
+    }
+
+    static BeanDefinition readDefinition(DataInputStream in, ClassLoader cl) throws IOException, ReflectiveOperationException {
+        String name = in.readUTF();
+        Class<?> beanClass = loadClass(in.readUTF(), cl);
+        boolean factory = in.readBoolean();
+        String factoryName = null;
+        Method factoryMethod = null;
+        Constructor<?> constructor = null;
+        if (factory) {
+            factoryName = in.readUTF();
+            Class<?> declaringClass = loadClass(in.readUTF(), cl);
+            String methodName = in.readUTF();
+            factoryMethod = declaringClass.getDeclaredMethod(methodName, readTypes(in, cl));
+        } else {
+            constructor = beanClass.getDeclaredConstructor(readTypes(in, cl));
+        }
+        int order = in.readInt();
+        boolean primary = in.readBoolean();
+        boolean lazy = in.readBoolean();
+        String scope = in.readUTF();
+        String initMethodName = readNullable(in);
+        String destroyMethodName = readNullable(in);
+        String initMethod = readNullable(in);
+        String destroyMethod = readNullable(in);
+        BeanDefinition def;
+        if (factory) {
+            def = new BeanDefinition(name, beanClass, factoryName, factoryMethod, order, primary, initMethodName, destroyMethodName, null, null);
+        } else {
+            def = new BeanDefinition(name, beanClass, constructor, order, primary, initMethodName, destroyMethodName,
+                    initMethod == null ? null : beanClass.getDeclaredMethod(initMethod),
+                    destroyMethod == null ? null : beanClass.getDeclaredMethod(destroyMethod));
+        }
+        def.setLazy(lazy);
+        def.setScope(scope);
+        int size = in.readInt();
+        if (size >= 0) {
+            BeanDependency[] dependencies = new BeanDependency[size];
+            for (int i = 0; i < size; i++) {
+                byte kind = in.readByte();
+                String key = kind == CONFIGURATION_PROPERTIES ? null : in.readUTF();
+                boolean required = kind == AUTOWIRED && in.readBoolean();
+                Class<?> type = loadClass(in.readUTF(), cl);
+                dependencies[i] = kind == VALUE ? BeanDependency.value(key, type)
+                        : kind == AUTOWIRED ? BeanDependency.autowired(key, required, type) : BeanDependency.configurationProperties(type);
+            }
+            def.setCreationDependencies(dependencies);
+        }
+        return def;
+    }
+
+    static Class<?>[] readTypes(DataInputStream in, ClassLoader cl) throws IOException, ClassNotFoundException {
+        Class<?>[] types = new Class<?>[in.readInt()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = loadClass(in.readUTF(), cl);
+        }
+        return types;
+    }
+
+    static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static Class<?> loadClass(String name, ClassLoader cl) throws ClassNotFoundException {
+        Class<?> primitive = PRIMITIVES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, cl);
+    }
+}
@@ -0,0 +1,45 @@
+package myspringframe.context;
+
+import myspringframe.exception.BeanDefinitionException;
+
+/**
+ * 按类缓存编译期生成的GeneratedBeanFactory，不存在时缓存NONE，每个类只查找一次。
+ */
+class GeneratedBeanFactories {
+    // 所有方法都返回null，不能生成任何部分:
+    static final GeneratedBeanFactory NONE = new GeneratedBeanFactory() {
+    };
+
+    static final ClassValue<GeneratedBeanFactory> FACTORIES = new ClassValue<GeneratedBeanFactory>() {
+        @Override
+        protected GeneratedBeanFactory computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    // 返回type的生成工厂，不存在时返回null:
+    static GeneratedBeanFactory forClass(Class<?> type) {
+        GeneratedBeanFactory factory = FACTORIES.get(type);
+        return factory == NONE ? null : factory;
+    }
+
+    static GeneratedBeanFactory load(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.getClassLoader() == null) {
+            return NONE;
+        }
+        Class<?> factoryClass;
+        try {
+            factoryClass = Class.forName(type.getName() + GeneratedBeanFactory.SUFFIX, true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return NONE;
+        }
+        if (!GeneratedBeanFactory.class.isAssignableFrom(factoryClass)) {
+            return NONE;
+        }
+        try {
+            return (GeneratedBeanFactory) factoryClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new BeanDefinitionException("Cannot create generated bean factory: " + factoryClass.getName(), e);
+        }
+    }
+}
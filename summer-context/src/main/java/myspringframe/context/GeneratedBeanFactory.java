@@ -0,0 +1,40 @@
+package myspringframe.context;
+
+/**
+ * summer-processor在编译期为@Component类生成的工厂，类名为Bean类的二进制名加SUFFIX。
+ * 容器找到生成的工厂时直接调用构造方法、@Bean方法和setter，不再通过反射分析和调用；
+ * 返回null的部分(如private成员)仍由反射处理，生成的工厂只覆写能够生成的方法。
+ */
+public interface GeneratedBeanFactory {
+    String SUFFIX = "$$SummerBeanFactory";
+
+    // 构造方法的参数，无法生成时返回null:
+    default BeanDependency[] getConstructorDependencies() {
+        return null;
+    }
+
+    // 只在getConstructorDependencies()不为null时调用:
+    default Object newInstance(Object[] args) throws Exception {
+        throw new IllegalStateException("Constructor is not generated in " + getClass().getName() + ".");
+    }
+
+    // 名为beanName的@Bean方法的参数，无法生成时返回null:
+    default BeanDependency[] getFactoryMethodDependencies(String beanName) {
+        return null;
+    }
+
+    // 只在getFactoryMethodDependencies(beanName)不为null时调用:
+    default Object invokeFactoryMethod(Object configuration, String beanName, Object[] args) throws Exception {
+        throw new IllegalStateException("@Bean method for bean '" + beanName + "' is not generated in " + getClass().getName() + ".");
+    }
+
+    // 包括父类在内的所有@Autowired/@Value字段和setter，顺序与InjectionPlan一致，无法生成时返回null:
+    default BeanDependency[] getInjectionDependencies() {
+        return null;
+    }
+
+    // values与getInjectionDependencies()一一对应，为null的跳过；只在getInjectionDependencies()不为null时调用:
+    default void inject(Object bean, Object[] values) throws Exception {
+        throw new IllegalStateException("Injection is not generated in " + getClass().getName() + ".");
+    }
+}
@@ -0,0 +1,131 @@
+package myspringframe.context;
+
+import myspringframe.annotation.Autowired;
+import myspringframe.annotation.Value;
+import myspringframe.exception.BeanCreationException;
+import myspringframe.exception.BeanDefinitionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 某个类的所有@Autowired/@Value字段和setter方法，每个类只分析一次，多个ApplicationContext共享。
+ */
+class InjectionPlan {
+    static final ClassValue<InjectionPlan> PLANS = new ClassValue<InjectionPlan>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return new InjectionPlan(type);
+        }
+    };
+
+    static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    final List<InjectionPoint> points;
+
+    static InjectionPlan forClass(Class<?> clazz) {
+        return PLANS.get(clazz);
+    }
+
+    InjectionPlan(Class<?> beanClass) {
+        List<InjectionPoint> points = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        // 与原来的注入顺序一致：先子类后父类，先字段后方法:
+        for (Class<?> clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Field f : clazz.getDeclaredFields()) {
+                InjectionPoint point = createInjectionPoint(lookup, clazz, f);
+                if (point != null) {
+                    points.add(point);
+                }
+            }
+            for (Method m : clazz.getDeclaredMethods()) {
+                InjectionPoint point = createInjectionPoint(lookup, clazz, m);
+                if (point != null) {
+                    points.add(point);
+                }
+            }
+        }
+        this.points = Collections.unmodifiableList(points);
+    }
+
+    static InjectionPoint createInjectionPoint(MethodHandles.Lookup lookup, Class<?> clazz, AccessibleObject acc) {
+        Value value = acc.getAnnotation(Value.class);
+        Autowired autowired = acc.getAnnotation(Autowired.class);
+        if (value == null && autowired == null) {
+            return null;
+        }
+        String name;
+        Class<?> type;
+        MethodHandle setter;
+        try {
+            if (acc instanceof Field) {
+                Field f = (Field) acc;
+                checkFieldOrMethod(f);
+                f.setAccessible(true);
+                name = f.getName();
+                type = f.getType();
+                setter = lookup.unreflectSetter(f);
+            } else {
+                Method m = (Method) acc;
+                checkFieldOrMethod(m);
+                if (m.getParameterCount() != 1) {
+                    throw new BeanDefinitionException(
+                            String.format("Cannot inject a non-setter method %s in class: %s", m.getName(), clazz.getName()));
+                }
+                m.setAccessible(true);
+                name = m.getName();
+                type = m.getParameterTypes()[0];
+                setter = lookup.unreflect(m);
+            }
+        } catch (IllegalAccessException e) {
+            throw new BeanDefinitionException(String.format("Cannot access %s in class: %s", acc, clazz.getName()), e);
+        }
+        if (value != null && autowired != null) {
+            throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value when inject %s.%s",
+                    clazz.getSimpleName(), name));
+        }
+        BeanDependency dependency = value == null ? BeanDependency.autowired(autowired.name(), autowired.value(), type)
+                : BeanDependency.value(value.value(), type);
+        return new InjectionPoint(name, dependency, setter.asType(SETTER_TYPE));
+    }
+
+    static void checkFieldOrMethod(Member m) {
+        int mod = m.getModifiers();
+        if (Modifier.isStatic(mod)) {
+            throw new BeanDefinitionException("Cannot inject static field: " + m);
+        }
+        if (Modifier.isFinal(mod)) {
+            if (m instanceof Field) {
+                throw new BeanDefinitionException("Cannot inject final field: " + m);
+            }
+        }
+    }
+
+    static class InjectionPoint {
+        final String name;
+        final BeanDependency dependency;
+        // (Object bean, Object value)void:
+        final MethodHandle setter;
+
+        InjectionPoint(String name, BeanDependency dependency, MethodHandle setter) {
+            this.name = name;
+            this.dependency = dependency;
+            this.setter = setter;
+        }
+
+        void inject(Object bean, Object value) {
+            try {
+                this.setter.invokeExact(bean, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new BeanCreationException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package myspringframe.context;
+
+import java.util.function.Supplier;
+
+/**
+ * 为延迟初始化的Bean创建注入用的代理，首次调用方法时才通过targetSupplier创建Bean。
+ * 由ServiceLoader加载，不存在实现时延迟Bean在注入时立即创建。
+ */
+public interface LazyProxyFactory {
+
+    // 无法代理该类型时返回null
+    Object createLazyProxy(Class<?> type, Supplier<?> targetSupplier);
+}
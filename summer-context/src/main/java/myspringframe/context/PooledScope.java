@@ -0,0 +1,145 @@
+package myspringframe.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 按Bean复用实例的有界对象池。空闲实例按线程分段存放，获取时优先从当前线程所在分段取，
+ * 再从其他分段取，都没有时创建新实例；归还时空闲实例总数已达maxIdle的实例被销毁，重复归还同一实例时抛出异常。
+ */
+public class PooledScope implements Scope {
+
+    private final int stripes;
+    private final int maxIdle;
+    private final int maxIdlePerStripe;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    public PooledScope(int maxIdle) {
+        this(maxIdle, Runtime.getRuntime().availableProcessors());
+    }
+
+    public PooledScope(int maxIdle, int concurrency) {
+        if (maxIdle < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("maxIdle and concurrency must be positive.");
+        }
+        // 分段数取2的幂，便于按线程id取模:
+        int n = Integer.highestOneBit(Math.min(maxIdle, concurrency));
+        this.stripes = n;
+        this.maxIdle = maxIdle;
+        this.maxIdlePerStripe = (maxIdle + n - 1) / n;
+    }
+
+    @Override
+    public Object get(BeanDefinition def, Supplier<Object> objectFactory) {
+        Object instance = getPool(def).borrow();
+        return instance != null ? instance : objectFactory.get();
+    }
+
+    @Override
+    public void release(BeanDefinition def, Object instance, Consumer<Object> destroyCallback) {
+        if (!getPool(def).giveBack(instance)) {
+            destroyCallback.accept(instance);
+        }
+    }
+
+    @Override
+    public void destroy(BiConsumer<BeanDefinition, Object> destroyCallback) {
+        for (Pool pool : this.pools.values()) {
+            Object instance;
+            while ((instance = pool.borrow()) != null) {
+                destroyCallback.accept(pool.def, instance);
+            }
+        }
+        this.pools.clear();
+    }
+
+    // 当前池中的空闲实例数:
+    public int getIdleCount(BeanDefinition def) {
+        Pool pool = this.pools.get(def.getName());
+        return pool == null ? 0 : pool.idleCount.get();
+    }
+
+    Pool getPool(BeanDefinition def) {
+        return this.pools.computeIfAbsent(def.getName(), name -> new Pool(def));
+    }
+
+    class Pool {
+        final BeanDefinition def;
+        final List<ArrayBlockingQueue<Object>> stripes;
+        // 所有分段中的空闲实例数，不超过maxIdle:
+        final AtomicInteger idleCount = new AtomicInteger();
+        // 空闲实例，按对象标识检查重复归还:
+        final Set<Identity> idle = ConcurrentHashMap.newKeySet();
+
+        Pool(BeanDefinition def) {
+            this.def = def;
+            this.stripes = new ArrayList<>(PooledScope.this.stripes);
+            for (int i = 0; i < PooledScope.this.stripes; i++) {
+                this.stripes.add(new ArrayBlockingQueue<>(maxIdlePerStripe));
+            }
+        }
+
+        Object borrow() {
+            int home = homeStripe();
+            for (int i = 0; i < this.stripes.size(); i++) {
+                Object instance = this.stripes.get((home + i) & (this.stripes.size() - 1)).poll();
+                if (instance != null) {
+                    this.idle.remove(new Identity(instance));
+                    this.idleCount.decrementAndGet();
+                    return instance;
+                }
+            }
+            return null;
+        }
+
+        boolean giveBack(Object instance) {
+            Identity identity = new Identity(instance);
+            if (!this.idle.add(identity)) {
+                throw new IllegalStateException(String.format("Instance of bean '%s' has already been released.", this.def.getName()));
+            }
+            // 先占用名额，总空闲数超过maxIdle时不再放入:
+            if (this.idleCount.incrementAndGet() <= maxIdle) {
+                int home = homeStripe();
+                for (int i = 0; i < this.stripes.size(); i++) {
+                    if (this.stripes.get((home + i) & (this.stripes.size() - 1)).offer(instance)) {
+                        return true;
+                    }
+                }
+            }
+            this.idleCount.decrementAndGet();
+            this.idle.remove(identity);
+            return false;
+        }
+
+        int homeStripe() {
+            return (int) Thread.currentThread().getId() & (this.stripes.size() - 1);
+        }
+    }
+
+    // 按==比较，不调用Bean的equals/hashCode:
+    static final class Identity {
+        final Object instance;
+
+        Identity(Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity && ((Identity) o).instance == this.instance;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.instance);
+        }
+    }
+}
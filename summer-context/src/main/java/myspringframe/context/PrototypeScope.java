@@ -0,0 +1,14 @@
+package myspringframe.context;
+
+import java.util.function.Supplier;
+
+/**
+ * 每次获取都创建新实例，容器不持有实例。
+ */
+public class PrototypeScope implements Scope {
+
+    @Override
+    public Object get(BeanDefinition def, Supplier<Object> objectFactory) {
+        return objectFactory.get();
+    }
+}
@@ -0,0 +1,27 @@
+package myspringframe.context;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 非单例Bean的作用域，决定getBean时返回新实例还是复用已有实例。
+ */
+public interface Scope {
+
+    String SINGLETON = "singleton";
+    String PROTOTYPE = "prototype";
+    String POOLED = "pooled";
+
+    // 返回该作用域中的实例，需要新实例时由objectFactory创建(已注入并初始化)
+    Object get(BeanDefinition def, Supplier<Object> objectFactory);
+
+    // 归还get返回的实例，不再复用的实例交给destroyCallback销毁
+    default void release(BeanDefinition def, Object instance, Consumer<Object> destroyCallback) {
+        destroyCallback.accept(instance);
+    }
+
+    // 容器关闭时销毁作用域持有的全部实例
+    default void destroy(BiConsumer<BeanDefinition, Object> destroyCallback) {
+    }
+}
@@ -0,0 +1,67 @@
+package myspringframe.context;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * refresh期间收集耗时，未开启时容器不创建该对象，refresh结束后即丢弃。
+ */
+class StartupProfiler {
+    final long startNanos = System.nanoTime();
+    // 阶段只在refresh线程中记录:
+    final Map<StartupReport.Phase, Long> phases = new EnumMap<>(StartupReport.Phase.class);
+    final Map<String, StartupReport.BeanTiming> beans = new ConcurrentHashMap<>();
+    final EventSink eventSink;
+
+    StartupProfiler(boolean jfr) {
+        this.eventSink = jfr ? loadJfrSink() : null;
+    }
+
+    // JFR事件类只在开启时加载:
+    static EventSink loadJfrSink() {
+        try {
+            return (EventSink) Class.forName("myspringframe.context.BeanCreationEvent$Sink").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("JFR is not available.", e);
+        }
+    }
+
+    void recordPhase(StartupReport.Phase phase, long nanos) {
+        this.phases.merge(phase, nanos, Long::sum);
+    }
+
+    BeanStep startBean() {
+        return new BeanStep(System.nanoTime(), this.eventSink == null ? null : this.eventSink.begin());
+    }
+
+    void recordBean(BeanDefinition def, StartupReport.Step step, BeanStep started) {
+        this.beans.computeIfAbsent(def.getName(), name -> new StartupReport.BeanTiming(name, def.getBeanClass())).add(step, System.nanoTime() - started.startNanos);
+        if (started.event != null) {
+            this.eventSink.commit(started.event, def, step);
+        }
+    }
+
+    StartupReport finish() {
+        return new StartupReport(System.nanoTime() - this.startNanos, this.phases, this.beans.values());
+    }
+
+    // 一个正在记录的步骤，event为已begin()的JFR事件:
+    static class BeanStep {
+        final long startNanos;
+        final Object event;
+
+        BeanStep(long startNanos, Object event) {
+            this.startNanos = startNanos;
+            this.event = event;
+        }
+    }
+
+    // JFR事件在步骤开始时begin()，结束时commit()，事件的时间即步骤实际执行的时间:
+    interface EventSink {
+        // 事件未启用时返回null:
+        Object begin();
+
+        void commit(Object event, BeanDefinition def, StartupReport.Step step);
+    }
+}
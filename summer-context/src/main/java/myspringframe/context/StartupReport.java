@@ -0,0 +1,116 @@
+package myspringframe.context;
+
+import java.util.*;
+
+/**
+ * refresh各阶段和每个Bean创建各步骤的耗时，开启summer.context.startup-profiling时生成。
+ */
+public class StartupReport {
+
+    public enum Phase {
+        SCAN, BEAN_DEFINITIONS, CONFIGURATION_BEANS, BEAN_POST_PROCESSORS, NORMAL_BEANS, INJECTION, INIT
+    }
+
+    public enum Step {
+        // 构造方法或工厂方法:
+        INSTANTIATE,
+        // BeanPostProcessor.postProcessBeforeInitialization:
+        POST_PROCESS,
+        INJECT,
+        // init方法或@PostConstruct:
+        INIT
+    }
+
+    private final long totalNanos;
+    private final Map<Phase, Long> phases;
+    private final List<BeanTiming> beanTimings;
+
+    StartupReport(long totalNanos, Map<Phase, Long> phases, Collection<BeanTiming> beanTimings) {
+        this.totalNanos = totalNanos;
+        this.phases = Collections.unmodifiableMap(new EnumMap<>(phases));
+        List<BeanTiming> sorted = new ArrayList<>(beanTimings);
+        sorted.sort(Comparator.comparingLong(BeanTiming::getTotalNanos).reversed());
+        this.beanTimings = Collections.unmodifiableList(sorted);
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    public Map<Phase, Long> getPhases() {
+        return this.phases;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return this.phases.getOrDefault(phase, 0L);
+    }
+
+    // 按总耗时从大到小排列:
+    public List<BeanTiming> getBeanTimings() {
+        return this.beanTimings;
+    }
+
+    public List<BeanTiming> getSlowestBeans(int limit) {
+        return this.beanTimings.subList(0, Math.min(limit, this.beanTimings.size()));
+    }
+
+    public String format(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Startup completed in %.1f ms%n", millis(this.totalNanos)));
+        for (Map.Entry<Phase, Long> entry : this.phases.entrySet()) {
+            sb.append(String.format("  %-22s %10.1f ms%n", entry.getKey(), millis(entry.getValue())));
+        }
+        sb.append(String.format("Slowest beans (%d of %d):%n", Math.min(limit, this.beanTimings.size()), this.beanTimings.size()));
+        sb.append(String.format("  %-40s %10s %10s %10s %10s %10s%n", "bean", "total", "create", "process", "inject", "init"));
+        for (BeanTiming timing : getSlowestBeans(limit)) {
+            sb.append(String.format("  %-40s %10.2f %10.2f %10.2f %10.2f %10.2f%n", timing.getName(), millis(timing.getTotalNanos()),
+                    millis(timing.getNanos(Step.INSTANTIATE)), millis(timing.getNanos(Step.POST_PROCESS)), millis(timing.getNanos(Step.INJECT)),
+                    millis(timing.getNanos(Step.INIT))));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format(10);
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public static class BeanTiming {
+        private final String name;
+        private final Class<?> beanClass;
+        private final long[] nanos = new long[Step.values().length];
+
+        BeanTiming(String name, Class<?> beanClass) {
+            this.name = name;
+            this.beanClass = beanClass;
+        }
+
+        synchronized void add(Step step, long value) {
+            this.nanos[step.ordinal()] += value;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public Class<?> getBeanClass() {
+            return this.beanClass;
+        }
+
+        public synchronized long getNanos(Step step) {
+            return this.nanos[step.ordinal()];
+        }
+
+        public synchronized long getTotalNanos() {
+            long total = 0;
+            for (long n : this.nanos) {
+                total += n;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package myspringframe.exception;
+
+public class ApplicationEventException extends BeansException {
+    public ApplicationEventException() {
+    }
+
+    public ApplicationEventException(String message) {
+        super(message);
+    }
+
+    public ApplicationEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ApplicationEventException(Throwable cause) {
+        super(cause);
+    }
+}
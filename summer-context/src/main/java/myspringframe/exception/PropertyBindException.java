@@ -0,0 +1,18 @@
+package myspringframe.exception;
+
+import java.util.Collections;
+import java.util.List;
+
+public class PropertyBindException extends BeanCreationException {
+
+    private final List<String> errors;
+
+    public PropertyBindException(String target, List<String> errors) {
+        super("Failed to bind properties to " + target + ":\n  " + String.join("\n  ", errors));
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    public List<String> getErrors() {
+        return this.errors;
+    }
+}
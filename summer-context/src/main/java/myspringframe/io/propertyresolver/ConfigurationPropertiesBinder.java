@@ -0,0 +1,403 @@
+package myspringframe.io.propertyresolver;
+
+import myspringframe.Utils.ClassUtils;
+import myspringframe.annotation.ConfigurationProperties;
+import myspringframe.exception.PropertyBindException;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * 把前缀下的属性绑定到对象，每个类的绑定方式(构造方法参数、setter或字段)只分析一次并缓存。
+ * 属性名忽略大小写、'-'和'_'，支持List/Set/Map和嵌套对象，所有错误汇总后一次抛出PropertyBindException。
+ */
+public final class ConfigurationPropertiesBinder {
+
+    static final ClassValue<ConfigurationPropertiesBinder> BINDERS = new ClassValue<ConfigurationPropertiesBinder>() {
+        @Override
+        protected ConfigurationPropertiesBinder computeValue(Class<?> type) {
+            return new ConfigurationPropertiesBinder(type);
+        }
+    };
+
+    // 没有可绑定的属性:
+    static final Object NONE = new Object();
+
+    final Class<?> type;
+    // 构造方法绑定时为唯一的构造方法，否则为无参数构造方法:
+    final Constructor<?> constructor;
+    // 构造方法绑定时按参数顺序排列:
+    final List<Target> targets = new ArrayList<>();
+    final Map<String, Target> targetsByName = new HashMap<>();
+    final boolean constructorBinding;
+
+    ConfigurationPropertiesBinder(Class<?> type) {
+        this.type = type;
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("Cannot bind properties to abstract type " + type.getName() + ".");
+        }
+        Constructor<?>[] constructors = type.getDeclaredConstructors();
+        Constructor<?> noArg = null;
+        for (Constructor<?> c : constructors) {
+            if (c.getParameterCount() == 0) {
+                noArg = c;
+            }
+        }
+        if (noArg != null) {
+            this.constructor = noArg;
+            this.constructorBinding = false;
+            findFieldsAndSetters(type);
+        } else if (constructors.length == 1) {
+            this.constructor = constructors[0];
+            this.constructorBinding = true;
+            Parameter[] params = this.constructor.getParameters();
+            Type[] types = this.constructor.getGenericParameterTypes();
+            for (int i = 0; i < params.length; i++) {
+                if (!params[i].isNamePresent()) {
+                    throw new IllegalArgumentException("Constructor parameter names of " + type.getName() + " are not available, compile with -parameters.");
+                }
+                addTarget(new Target(params[i].getName(), types[i], null, null));
+            }
+        } else {
+            throw new IllegalArgumentException("Class " + type.getName() + " must have a no-arg constructor or a single constructor for property binding.");
+        }
+        this.constructor.setAccessible(true);
+    }
+
+    void findFieldsAndSetters(Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int mod = field.getModifiers();
+                if (Modifier.isStatic(mod) || Modifier.isFinal(mod) || field.isSynthetic() || this.targetsByName.containsKey(normalize(field.getName()))) {
+                    continue;
+                }
+                field.setAccessible(true);
+                addTarget(new Target(field.getName(), field.getGenericType(), field, null));
+            }
+        }
+        // setter优先于同名字段:
+        for (Method method : type.getMethods()) {
+            if (method.getName().length() > 3 && method.getName().startsWith("set") && method.getParameterCount() == 1
+                    && !Modifier.isStatic(method.getModifiers())) {
+                String name = method.getName().substring(3);
+                Target old = this.targetsByName.get(normalize(name));
+                if (old != null) {
+                    this.targets.remove(old);
+                }
+                addTarget(new Target(name, method.getGenericParameterTypes()[0], null, method));
+            }
+        }
+    }
+
+    void addTarget(Target target) {
+        this.targets.add(target);
+        this.targetsByName.put(target.name, target);
+    }
+
+    /**
+     * 按类上的@ConfigurationProperties创建并绑定对象。
+     */
+    public static <T> T bind(Class<T> type, PropertyResolver resolver) {
+        ConfigurationProperties props = type.getAnnotation(ConfigurationProperties.class);
+        if (props == null) {
+            throw new IllegalArgumentException("Class " + type.getName() + " is not annotated with @ConfigurationProperties.");
+        }
+        return bind(type, props.prefix(), props.ignoreUnknownFields(), resolver);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T bind(Class<T> type, String prefix, boolean ignoreUnknownFields, PropertyResolver resolver) {
+        BindContext ctx = new BindContext(resolver, ignoreUnknownFields);
+        Object instance = null;
+        try {
+            instance = BINDERS.get(type).create(resolver.getSubProperties(prefix), prefix, ctx);
+        } catch (IllegalArgumentException e) {
+            ctx.errors.add(prefix + ": " + e.getMessage());
+        }
+        if (!ctx.errors.isEmpty()) {
+            throw new PropertyBindException(type.getName(), ctx.errors);
+        }
+        return (T) instance;
+    }
+
+    /**
+     * 绑定到已创建的对象，只使用setter和字段。
+     */
+    public static void bind(Object target, String prefix, boolean ignoreUnknownFields, PropertyResolver resolver) {
+        BindContext ctx = new BindContext(resolver, ignoreUnknownFields);
+        try {
+            ConfigurationPropertiesBinder binder = BINDERS.get(target.getClass());
+            if (binder.constructorBinding) {
+                throw new IllegalArgumentException("Class " + target.getClass().getName() + " has no no-arg constructor, setters or fields cannot be bound.");
+            }
+            binder.populate(target, resolver.getSubProperties(prefix), prefix, ctx);
+        } catch (IllegalArgumentException e) {
+            ctx.errors.add(prefix + ": " + e.getMessage());
+        }
+        if (!ctx.errors.isEmpty()) {
+            throw new PropertyBindException(target.getClass().getName(), ctx.errors);
+        }
+    }
+
+    Object create(Map<String, String> view, String path, BindContext ctx) {
+        if (!this.constructorBinding) {
+            Object instance = newInstance(new Object[0], path, ctx);
+            if (instance != null) {
+                populate(instance, view, path, ctx);
+            }
+            return instance;
+        }
+        Map<String, String> segments = findSegments(view, path, ctx);
+        Object[] args = new Object[this.targets.size()];
+        for (int i = 0; i < args.length; i++) {
+            Target target = this.targets.get(i);
+            Object value = bindTarget(target, segments, view, path, ctx);
+            args[i] = value == NONE ? defaultValue(ClassUtils.getRawClass(target.type)) : value;
+        }
+        return newInstance(args, path, ctx);
+    }
+
+    void populate(Object instance, Map<String, String> view, String path, BindContext ctx) {
+        Map<String, String> segments = findSegments(view, path, ctx);
+        for (Target target : this.targets) {
+            Object value = bindTarget(target, segments, view, path, ctx);
+            if (value == NONE) {
+                continue;
+            }
+            try {
+                if (target.setter != null) {
+                    target.setter.invoke(instance, value);
+                } else {
+                    target.field.set(instance, value);
+                }
+            } catch (InvocationTargetException e) {
+                ctx.errors.add(path + "." + target.name + ": " + e.getCause());
+            } catch (ReflectiveOperationException e) {
+                ctx.errors.add(path + "." + target.name + ": " + e);
+            }
+        }
+    }
+
+    Object newInstance(Object[] args, String path, BindContext ctx) {
+        try {
+            return this.constructor.newInstance(args);
+        } catch (InvocationTargetException e) {
+            ctx.errors.add(path + ": " + e.getCause());
+        } catch (ReflectiveOperationException e) {
+            ctx.errors.add(path + ": " + e);
+        }
+        return null;
+    }
+
+    // 返回标准化名称 -> 属性中的原始名称，并检查未知属性:
+    Map<String, String> findSegments(Map<String, String> view, String path, BindContext ctx) {
+        Map<String, String> segments = new LinkedHashMap<>();
+        for (String key : view.keySet()) {
+            String segment = firstSegment(key);
+            String name = normalize(segment);
+            if (segments.putIfAbsent(name, segment) == null && !ctx.ignoreUnknownFields && !this.targetsByName.containsKey(name)) {
+                ctx.errors.add(path + "." + segment + ": no matching property in " + this.type.getName());
+            }
+        }
+        return segments;
+    }
+
+    Object bindTarget(Target target, Map<String, String> segments, Map<String, String> view, String path, BindContext ctx) {
+        String segment = segments.get(target.name);
+        if (segment == null) {
+            return NONE;
+        }
+        return bindValue(target.type, segment, view, path + "." + segment, ctx);
+    }
+
+    static Object bindValue(Type type, String name, Map<String, String> view, String path, BindContext ctx) {
+        Class<?> raw = ClassUtils.getRawClass(type);
+        if (isScalar(raw, ctx)) {
+            String value = view.get(name);
+            return value == null ? NONE : convert(raw, value, path, ctx);
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            return bindCollection(type, raw, name, view, path, ctx);
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return bindMap(type, name, view, path, ctx);
+        }
+        Map<String, String> sub = subView(view, name + ".");
+        if (sub.isEmpty()) {
+            return NONE;
+        }
+        try {
+            return BINDERS.get(raw).create(sub, path, ctx);
+        } catch (IllegalArgumentException e) {
+            ctx.errors.add(path + ": " + e.getMessage());
+            return NONE;
+        }
+    }
+
+    static Object bindCollection(Type type, Class<?> raw, String name, Map<String, String> view, String path, BindContext ctx) {
+        Type elementType = ClassUtils.getTypeArgument(type, 0);
+        Class<?> elementClass = ClassUtils.getRawClass(elementType);
+        // name[0], name[1]...:
+        SortedSet<Integer> indices = new TreeSet<>();
+        String start = name + "[";
+        for (String key : view.keySet()) {
+            int end = key.indexOf(']', start.length());
+            if (key.startsWith(start) && end > start.length()) {
+                try {
+                    indices.add(Integer.parseInt(key.substring(start.length(), end)));
+                } catch (NumberFormatException e) {
+                    ctx.errors.add(path + ": invalid index in '" + key + "'");
+                }
+            }
+        }
+        List<Object> list = new ArrayList<>();
+        if (!indices.isEmpty()) {
+            for (int index : indices) {
+                Object value = bindValue(elementType, name + "[" + index + "]", view, path + "[" + index + "]", ctx);
+                if (value != NONE) {
+                    list.add(value);
+                }
+            }
+        } else {
+            // 逗号分隔的值:
+            String value = view.get(name);
+            if (value == null) {
+                return NONE;
+            }
+            if (!isScalar(elementClass, ctx)) {
+                ctx.errors.add(path + ": cannot convert '" + value + "' to " + elementClass.getName());
+                return NONE;
+            }
+            for (String part : value.split(",")) {
+                if (!part.trim().isEmpty()) {
+                    Object element = convert(elementClass, part.trim(), path, ctx);
+                    if (element != NONE) {
+                        list.add(element);
+                    }
+                }
+            }
+        }
+        return Set.class.isAssignableFrom(raw) ? new LinkedHashSet<>(list) : list;
+    }
+
+    static Object bindMap(Type type, String name, Map<String, String> view, String path, BindContext ctx) {
+        if (ClassUtils.getRawClass(ClassUtils.getTypeArgument(type, 0)) != String.class
+                && ClassUtils.getRawClass(ClassUtils.getTypeArgument(type, 0)) != Object.class) {
+            ctx.errors.add(path + ": only String map keys are supported");
+            return NONE;
+        }
+        Type valueType = ClassUtils.getTypeArgument(type, 1);
+        Class<?> valueClass = ClassUtils.getRawClass(valueType);
+        boolean scalar = isScalar(valueClass, ctx);
+        String start = name + ".";
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (String key : view.keySet()) {
+            if (!key.startsWith(start)) {
+                continue;
+            }
+            String rest = key.substring(start.length());
+            if (scalar) {
+                // 值为标量时剩余部分整体作为Map的key:
+                Object value = convert(valueClass, view.get(key), path + "." + rest, ctx);
+                if (value != NONE) {
+                    map.put(rest, value);
+                }
+            } else {
+                String mapKey = firstSegment(rest);
+                if (!map.containsKey(mapKey)) {
+                    Object value = bindValue(valueType, start + mapKey, view, path + "." + mapKey, ctx);
+                    if (value != NONE) {
+                        map.put(mapKey, value);
+                    }
+                }
+            }
+        }
+        return map.isEmpty() ? NONE : map;
+    }
+
+    static boolean isScalar(Class<?> type, BindContext ctx) {
+        return type.isEnum() || type == Object.class || ctx.resolver.canConvert(type);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static Object convert(Class<?> type, String value, String path, BindContext ctx) {
+        try {
+            if (type == Object.class) {
+                return value;
+            }
+            if (type.isEnum()) {
+                for (Object constant : type.getEnumConstants()) {
+                    if (normalize(((Enum) constant).name()).equals(normalize(value))) {
+                        return constant;
+                    }
+                }
+                throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+            }
+            return ctx.resolver.convert(type, value);
+        } catch (RuntimeException e) {
+            ctx.errors.add(path + ": cannot convert '" + value + "' to " + type.getName() + " (" + e.getMessage() + ")");
+            return NONE;
+        }
+    }
+
+    static Map<String, String> subView(Map<String, String> view, String start) {
+        Map<String, String> sub = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : view.entrySet()) {
+            if (entry.getKey().startsWith(start)) {
+                sub.put(entry.getKey().substring(start.length()), entry.getValue());
+            }
+        }
+        return sub;
+    }
+
+    static String firstSegment(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '.' || c == '[') {
+                return key.substring(0, i);
+            }
+        }
+        return key;
+    }
+
+    // 忽略大小写、'-'和'_':
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != '-' && c != '_') {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    static Object defaultValue(Class<?> type) {
+        return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    static class Target {
+        final String name;
+        final Type type;
+        final Field field;
+        final Method setter;
+
+        Target(String name, Type type, Field field, Method setter) {
+            this.name = normalize(name);
+            this.type = type;
+            this.field = field;
+            this.setter = setter;
+        }
+    }
+
+    static class BindContext {
+        final PropertyResolver resolver;
+        final boolean ignoreUnknownFields;
+        final List<String> errors = new ArrayList<>();
+
+        BindContext(PropertyResolver resolver, boolean ignoreUnknownFields) {
+            this.resolver = resolver;
+            this.ignoreUnknownFields = ignoreUnknownFields;
+        }
+    }
+}
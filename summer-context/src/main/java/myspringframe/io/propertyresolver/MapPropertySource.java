@@ -0,0 +1,46 @@
+package myspringframe.io.propertyresolver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+public class MapPropertySource implements PropertySource {
+    final String name;
+    final Supplier<Map<String, String>> supplier;
+
+    public MapPropertySource(String name, Supplier<Map<String, String>> supplier) {
+        this.name = name;
+        this.supplier = supplier;
+    }
+
+    public static MapPropertySource systemEnvironment() {
+        return new MapPropertySource("systemEnvironment", System::getenv);
+    }
+
+    public static MapPropertySource systemProperties() {
+        return new MapPropertySource("systemProperties", () -> toMap(System.getProperties()));
+    }
+
+    public static MapPropertySource of(String name, Properties props) {
+        return new MapPropertySource(name, () -> toMap(props));
+    }
+
+    static Map<String, String> toMap(Properties props) {
+        Map<String, String> map = new HashMap<>();
+        for (String name : props.stringPropertyNames()) {
+            map.put(name, props.getProperty(name));
+        }
+        return map;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public Map<String, String> load() {
+        return this.supplier.get();
+    }
+}
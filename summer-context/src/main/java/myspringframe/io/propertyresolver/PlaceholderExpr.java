@@ -0,0 +1,141 @@
+package myspringframe.io.propertyresolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预先解析的占位符表达式，不可变，可被多个线程共享:
+ * Literal: 普通文本；Placeholder: ${key:default}，key和default本身也可以是表达式；Composite: 多段拼接，如http://${host}:${port}
+ */
+abstract class PlaceholderExpr {
+
+    // 嵌套解析的最大深度，超过时认为存在循环引用:
+    static final int MAX_DEPTH = 32;
+
+    // 无法解析时返回null
+    abstract String resolve(PropertyResolver resolver, int depth);
+
+    /**
+     * 解析属性值或默认值，不含${的文本作为普通文本。
+     */
+    static PlaceholderExpr parseTemplate(String text) {
+        List<PlaceholderExpr> parts = new ArrayList<>();
+        int pos = 0;
+        while (pos < text.length()) {
+            int start = text.indexOf("${", pos);
+            int end = start == -1 ? -1 : findPlaceholderEnd(text, start);
+            if (end == -1) {
+                parts.add(new Literal(text.substring(pos)));
+                break;
+            }
+            if (start > pos) {
+                parts.add(new Literal(text.substring(pos, start)));
+            }
+            parts.add(parsePlaceholder(text.substring(start + 2, end)));
+            pos = end + 1;
+        }
+        if (parts.isEmpty()) {
+            return new Literal("");
+        }
+        return parts.size() == 1 ? parts.get(0) : new Composite(parts);
+    }
+
+    /**
+     * 解析getProperty()的参数，不含${的文本作为属性名。
+     */
+    static PlaceholderExpr parseKey(String key) {
+        if (key.contains("${")) {
+            return parseTemplate(key);
+        }
+        return new Placeholder(new Literal(key), null);
+    }
+
+    static PlaceholderExpr parsePlaceholder(String content) {
+        // 第一个不在嵌套占位符中的':'分隔key和默认值:
+        int depth = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '$' && i + 1 < content.length() && content.charAt(i + 1) == '{') {
+                depth++;
+                i++;
+            } else if (c == '}') {
+                depth--;
+            } else if (c == ':' && depth == 0) {
+                return new Placeholder(parseTemplate(content.substring(0, i)), parseTemplate(content.substring(i + 1)));
+            }
+        }
+        return new Placeholder(parseTemplate(content), null);
+    }
+
+    // 返回与start处的${匹配的}的位置，不存在时返回-1:
+    static int findPlaceholderEnd(String text, int start) {
+        int depth = 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '$' && i + 1 < text.length() && text.charAt(i + 1) == '{') {
+                depth++;
+                i++;
+            } else if (c == '}') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    static final class Literal extends PlaceholderExpr {
+        final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        String resolve(PropertyResolver resolver, int depth) {
+            return this.text;
+        }
+    }
+
+    static final class Placeholder extends PlaceholderExpr {
+        final PlaceholderExpr key;
+        final PlaceholderExpr defaultValue;
+
+        Placeholder(PlaceholderExpr key, PlaceholderExpr defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        String resolve(PropertyResolver resolver, int depth) {
+            String name = this.key.resolve(resolver, depth);
+            String value = name == null ? null : resolver.lookup(name, depth + 1);
+            if (value == null && this.defaultValue != null) {
+                value = this.defaultValue.resolve(resolver, depth + 1);
+            }
+            return value;
+        }
+    }
+
+    static final class Composite extends PlaceholderExpr {
+        final PlaceholderExpr[] parts;
+
+        Composite(List<PlaceholderExpr> parts) {
+            this.parts = parts.toArray(new PlaceholderExpr[0]);
+        }
+
+        @Override
+        String resolve(PropertyResolver resolver, int depth) {
+            StringBuilder sb = new StringBuilder();
+            for (PlaceholderExpr part : this.parts) {
+                String value = part.resolve(resolver, depth);
+                if (value == null) {
+                    return null;
+                }
+                sb.append(value);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package myspringframe.io.propertyresolver;
+
+@FunctionalInterface
+public interface PropertyChangeListener {
+    // oldValue/newValue为未解析占位符的原始值，新增或删除时为null
+    void propertyChanged(String key, String oldValue, String newValue);
+}
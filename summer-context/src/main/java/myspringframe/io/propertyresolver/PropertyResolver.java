@@ -1,18 +1,48 @@
 package myspringframe.io.propertyresolver;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 public class PropertyResolver {
-    Map<String,String> properties=new HashMap<>();
+    // 合并后的不可变快照，重新加载时整体替换，读取不加锁:
+    volatile Map<String,String> properties = Collections.emptyMap();
     Map<Class<?>, Function<String, Object>> converters = new HashMap<>();
+
+    // 按优先级从低到高排列的属性来源:
+    final List<PropertySource> sources;
+    // setProperty()设置的属性，优先级最高:
+    final Map<String, String> overrides = new LinkedHashMap<>();
+    final Map<String, List<PropertyChangeListener>> listeners = new ConcurrentHashMap<>();
+    PropertySourceWatcher watcher;
+    // 按key排序的快照视图，用于按前缀查找，快照替换后重新构建:
+    volatile SortedView sortedView;
+
+    // 编译模式: 表达式只解析一次，解析并转换后的值按(key, 类型)缓存:
+    final boolean compiled;
+    final Map<String, PlaceholderExpr> keyExprs = new ConcurrentHashMap<>();
+    // 只缓存当前快照中的属性值，快照替换时清空，避免reload后旧值一直占用内存:
+    final Map<String, PlaceholderExpr> valueExprs = new ConcurrentHashMap<>();
+    // 属性变化时整体替换，正在计算的旧值只会写入旧缓存:
+    volatile Map<Class<?>, Map<String, Object>> typedValues = new ConcurrentHashMap<>();
+    static final Object NULL_VALUE = new Object();
+
     public PropertyResolver(Properties props){
-        properties.putAll(System.getenv());
-        Set<String> names = props.stringPropertyNames();
-        for (String name : names){
-            properties.put(name,props.getProperty(name));
-        }
+        this(props, false);
+    }
+
+    public PropertyResolver(Properties props, boolean compiled){
+        this(Arrays.asList(MapPropertySource.systemEnvironment(), MapPropertySource.of("properties", props)), compiled);
+    }
+
+    public PropertyResolver(List<PropertySource> sources, boolean compiled){
+        this.compiled = compiled;
+        this.sources = new ArrayList<>(sources);
+        this.properties = merge();
         converters.put(String.class, s -> s);
         converters.put(boolean.class, s -> Boolean.parseBoolean(s));
         converters.put(Boolean.class, s -> Boolean.valueOf(s));
@@ -45,6 +75,9 @@ public class PropertyResolver {
 
 
     public String getProperty(String key){
+        if (this.compiled) {
+            return getCompiledProperty(key, String.class);
+        }
         PropertyExpr expr = parsePropertyExpr(key);
         if (expr != null) {
             if (expr.defaultvalue != null) {
@@ -62,6 +95,11 @@ public class PropertyResolver {
 
     public String getProperty(String key,String defaultValue){
         if (defaultValue == null) return getProperty(key);
+        if (this.compiled) {
+            String value = getProperty(key);
+            // 调用方传入的默认值不缓存:
+            return value != null ? value : PlaceholderExpr.parseTemplate(defaultValue).resolve(this, 0);
+        }
         String value = getProperty(key);
         String dValue = parseValue(defaultValue);
         if (value == null) return dValue;
@@ -70,6 +108,9 @@ public class PropertyResolver {
 
 
     public <T> T getProperty(String key, Class<T> targetType) {
+        if (this.compiled) {
+            return getCompiledProperty(key, targetType);
+        }
         String value = getProperty(key);
         if (value == null) {
             return null;
@@ -78,6 +119,10 @@ public class PropertyResolver {
     }
 
     public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
+        if (this.compiled) {
+            T value = getCompiledProperty(key, targetType);
+            return value != null ? value : defaultValue;
+        }
         String value = getProperty(key);
         if (value == null) {
             return defaultValue;
@@ -85,6 +130,177 @@ public class PropertyResolver {
         return convert(targetType, value);
     }
 
+    @SuppressWarnings("unchecked")
+    <T> T getCompiledProperty(String key, Class<T> targetType) {
+        Map<String, Object> values = this.typedValues.computeIfAbsent(targetType, t -> new ConcurrentHashMap<>());
+        Object value = values.get(key);
+        if (value == null) {
+            String str = keyExpr(key).resolve(this, 0);
+            value = str == null ? NULL_VALUE : convert(targetType, str);
+            values.put(key, value);
+        }
+        return value == NULL_VALUE ? null : (T) value;
+    }
+
+    PlaceholderExpr keyExpr(String key) {
+        PlaceholderExpr expr = this.keyExprs.get(key);
+        if (expr == null) {
+            expr = PlaceholderExpr.parseKey(key);
+            this.keyExprs.put(key, expr);
+        }
+        return expr;
+    }
+
+    PlaceholderExpr valueExpr(String value) {
+        PlaceholderExpr expr = this.valueExprs.get(value);
+        if (expr == null) {
+            expr = PlaceholderExpr.parseTemplate(value);
+            this.valueExprs.put(value, expr);
+        }
+        return expr;
+    }
+
+    // 查找属性并解析属性值中的占位符:
+    String lookup(String key, int depth) {
+        if (depth > PlaceholderExpr.MAX_DEPTH) {
+            throw new IllegalArgumentException("Circular placeholder reference detected when resolve property '" + key + "'.");
+        }
+        String value = this.properties.get(key);
+        return value == null ? null : valueExpr(value).resolve(this, depth);
+    }
+
+    /**
+     * 修改属性，value为null时删除，优先级高于所有属性来源。
+     */
+    public synchronized void setProperty(String key, String value) {
+        this.overrides.put(key, value);
+        update(merge());
+    }
+
+    /**
+     * 重新读取所有属性来源，替换快照并通知发生变化的key的监听器。
+     */
+    public synchronized void reload() {
+        update(merge());
+    }
+
+    Map<String, String> merge() {
+        Map<String, String> merged = new HashMap<>();
+        for (PropertySource source : this.sources) {
+            merged.putAll(source.load());
+        }
+        this.overrides.forEach((key, value) -> {
+            if (value == null) {
+                merged.remove(key);
+            } else {
+                merged.put(key, value);
+            }
+        });
+        return Collections.unmodifiableMap(merged);
+    }
+
+    void update(Map<String, String> snapshot) {
+        Map<String, String> old = this.properties;
+        // 先替换快照再替换缓存，读到新缓存的线程一定读到新快照:
+        this.properties = snapshot;
+        this.typedValues = new ConcurrentHashMap<>();
+        this.valueExprs.clear();
+        if (this.listeners.isEmpty()) {
+            return;
+        }
+        Set<String> keys = new HashSet<>(old.keySet());
+        keys.addAll(snapshot.keySet());
+        for (String key : keys) {
+            String oldValue = old.get(key);
+            String newValue = snapshot.get(key);
+            if (!Objects.equals(oldValue, newValue)) {
+                for (PropertyChangeListener listener : this.listeners.getOrDefault(key, Collections.emptyList())) {
+                    // 一个监听器出错不影响其他监听器:
+                    try {
+                        listener.propertyChanged(key, oldValue, newValue);
+                    } catch (RuntimeException e) {
+                        System.out.println("Property change listener failed for key '" + key + "': " + e);
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 返回prefix.开头的全部属性，key去掉prefix.，value已解析占位符。
+     */
+    public Map<String, String> getSubProperties(String prefix) {
+        Map<String, String> snapshot = this.properties;
+        SortedView view = this.sortedView;
+        if (view == null || view.source != snapshot) {
+            view = new SortedView(snapshot);
+            this.sortedView = view;
+        }
+        String start = prefix + ".";
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String key : view.sorted.subMap(start, true, start + Character.MAX_VALUE, false).keySet()) {
+            String value = getProperty(key);
+            if (value != null) {
+                result.put(key.substring(start.length()), value);
+            }
+        }
+        return result;
+    }
+
+    static class SortedView {
+        final Map<String, String> source;
+        final NavigableMap<String, String> sorted;
+
+        SortedView(Map<String, String> source) {
+            this.source = source;
+            this.sorted = new TreeMap<>(source);
+        }
+    }
+
+    boolean canConvert(Class<?> targetType) {
+        return this.converters.containsKey(targetType);
+    }
+
+    public void addChangeListener(String key, PropertyChangeListener listener) {
+        this.listeners.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void removeChangeListener(String key, PropertyChangeListener listener) {
+        List<PropertyChangeListener> list = this.listeners.get(key);
+        if (list != null) {
+            list.remove(listener);
+        }
+    }
+
+    /**
+     * 监听文件属性来源，文件变化时自动reload()，没有文件来源时返回false。
+     */
+    public synchronized boolean startWatching() throws IOException {
+        if (this.watcher != null) {
+            return true;
+        }
+        Set<Path> files = new LinkedHashSet<>();
+        for (PropertySource source : this.sources) {
+            if (source.getWatchPath() != null) {
+                files.add(source.getWatchPath());
+            }
+        }
+        if (files.isEmpty()) {
+            return false;
+        }
+        this.watcher = new PropertySourceWatcher(this, files);
+        return true;
+    }
+
+    public synchronized void stopWatching() throws IOException {
+        if (this.watcher != null) {
+            this.watcher.close();
+            this.watcher = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
     public <T> T convert(Class<?> targetType, String value){
         Function<String, Object> fn = this.converters.get(targetType);
         if (fn == null) {
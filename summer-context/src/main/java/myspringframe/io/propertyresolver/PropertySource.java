@@ -0,0 +1,20 @@
+package myspringframe.io.propertyresolver;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * 一层属性来源，PropertyResolver按顺序合并，后面的覆盖前面的。
+ */
+public interface PropertySource {
+
+    String getName();
+
+    // 读取当前全部属性，来源不存在时返回空Map
+    Map<String, String> load();
+
+    // 来自文件系统的来源返回文件路径，用于监听变化
+    default Path getWatchPath() {
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package myspringframe.io.propertyresolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 用WatchService监听文件属性来源所在目录，文件变化时重新加载PropertyResolver。
+ */
+public class PropertySourceWatcher implements Closeable {
+    final PropertyResolver resolver;
+    final Set<Path> files = new HashSet<>();
+    final WatchService watchService;
+    final Thread thread;
+
+    PropertySourceWatcher(PropertyResolver resolver, Set<Path> files) throws IOException {
+        this.resolver = resolver;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> dirs = new HashSet<>();
+        for (Path file : files) {
+            Path absolute = file.toAbsolutePath();
+            this.files.add(absolute);
+            Path dir = absolute.getParent();
+            if (dir != null && Files.isDirectory(dir) && dirs.add(dir)) {
+                dir.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        }
+        this.thread = new Thread(this::watch, "summer-property-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = this.watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    changed = true;
+                } else {
+                    Path path = ((Path) key.watchable()).resolve((Path) event.context());
+                    changed |= this.files.contains(path);
+                }
+            }
+            key.reset();
+            if (changed) {
+                try {
+                    this.resolver.reload();
+                } catch (RuntimeException e) {
+                    // 文件可能正在写入，保留旧属性，等待下一次变化:
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+        this.thread.interrupt();
+    }
+}
@@ -0,0 +1,76 @@
+package myspringframe.io.propertyresolver;
+
+import myspringframe.Utils.ClassPathUtils;
+import myspringframe.Utils.YamlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 从classpath或文件系统读取.yml/.yaml/.properties文件，文件来源可被监听并重新加载。
+ */
+public class ResourcePropertySource implements PropertySource {
+    final String name;
+    final String classPath;
+    final Path file;
+
+    ResourcePropertySource(String name, String classPath, Path file) {
+        this.name = name;
+        this.classPath = classPath;
+        this.file = file;
+    }
+
+    public static ResourcePropertySource classPath(String path) {
+        return new ResourcePropertySource("classpath:" + path, path, null);
+    }
+
+    public static ResourcePropertySource file(Path file) {
+        return new ResourcePropertySource("file:" + file, null, file.toAbsolutePath());
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public Path getWatchPath() {
+        return this.file;
+    }
+
+    @Override
+    public Map<String, String> load() {
+        if (this.file != null) {
+            if (!Files.isRegularFile(this.file)) {
+                return new HashMap<>();
+            }
+            try (InputStream input = Files.newInputStream(this.file)) {
+                return read(this.file.getFileName().toString(), input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (!ClassPathUtils.exists(this.classPath)) {
+            return new HashMap<>();
+        }
+        return ClassPathUtils.readInputStream(this.classPath, input -> read(this.classPath, input));
+    }
+
+    static Map<String, String> read(String fileName, InputStream input) throws IOException {
+        Map<String, String> map = new HashMap<>();
+        if (fileName.endsWith(".yml") || fileName.endsWith(".yaml")) {
+            YamlUtils.flattenYaml(input, map::put);
+        } else {
+            Properties props = new Properties();
+            props.load(input);
+            map.putAll(MapPropertySource.toMap(props));
+        }
+        return map;
+    }
+}
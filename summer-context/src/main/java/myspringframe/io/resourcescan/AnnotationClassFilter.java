@@ -0,0 +1,77 @@
+package myspringframe.io.resourcescan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 根据class文件字节判断类是否直接或通过元注解标注了指定注解，判断过程不加载任何类。
+ */
+public class AnnotationClassFilter {
+    final ClassLoader classLoader;
+    final String annotationName;
+    // 注解类名 -> 是否(元)标注了annotationName:
+    final Map<String, Boolean> annotationCache = new ConcurrentHashMap<>();
+
+    public AnnotationClassFilter(ClassLoader classLoader, String annotationName) {
+        this.classLoader = classLoader;
+        this.annotationName = annotationName;
+    }
+
+    /**
+     * @param resourceName class文件在classpath中的路径，如"com/example/Foo.class"
+     */
+    public boolean matches(String resourceName) {
+        ClassMetadataReader metadata = readMetadata(resourceName);
+        if (metadata == null || metadata.isInterface() || metadata.isAnnotation() || metadata.isEnum()) {
+            return false;
+        }
+        for (String annoType : metadata.getAnnotationTypes()) {
+            if (isMetaAnnotated(annoType, new HashSet<>())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isMetaAnnotated(String annoType, Set<String> visited) {
+        if (annoType.equals(this.annotationName)) {
+            return true;
+        }
+        // 只有从matches()直接进入时结果才完整，循环中途因visited返回的false不能缓存:
+        boolean topLevel = visited.isEmpty();
+        if (annoType.startsWith("java.") || !visited.add(annoType)) {
+            return false;
+        }
+        Boolean cached = this.annotationCache.get(annoType);
+        if (cached != null) {
+            return cached;
+        }
+        boolean found = false;
+        ClassMetadataReader metadata = readMetadata(annoType.replace('.', '/') + ".class");
+        if (metadata != null) {
+            for (String metaType : metadata.getAnnotationTypes()) {
+                if (isMetaAnnotated(metaType, visited)) {
+                    found = true;
+                    break;
+                }
+            }
+        }
+        if (found || topLevel) {
+            this.annotationCache.put(annoType, found);
+        }
+        return found;
+    }
+
+    ClassMetadataReader readMetadata(String resourceName) {
+        try (InputStream input = this.classLoader.getResourceAsStream(resourceName)) {
+            return input == null ? null : ClassMetadataReader.read(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
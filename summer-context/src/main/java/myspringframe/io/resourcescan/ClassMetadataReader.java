@@ -0,0 +1,170 @@
+package myspringframe.io.resourcescan;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 直接解析class文件的常量池和类上的RuntimeVisibleAnnotations，不加载类。
+ */
+public class ClassMetadataReader {
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+
+    final String className;
+    final int accessFlags;
+    final List<String> annotationTypes;
+
+    ClassMetadataReader(String className, int accessFlags, List<String> annotationTypes) {
+        this.className = className;
+        this.accessFlags = accessFlags;
+        this.annotationTypes = annotationTypes;
+    }
+
+    public static ClassMetadataReader read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        if (input.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file.");
+        }
+        // minor_version, major_version:
+        input.readUnsignedShort();
+        input.readUnsignedShort();
+        int count = input.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNameIndex = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = input.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = input.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndex[i] = input.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    input.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    input.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    input.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    input.skipBytes(8);
+                    // 占用两个常量池位置:
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag: " + tag);
+            }
+        }
+        int accessFlags = input.readUnsignedShort();
+        String className = utf8[classNameIndex[input.readUnsignedShort()]].replace('/', '.');
+        // super_class:
+        input.readUnsignedShort();
+        input.skipBytes(2 * input.readUnsignedShort());
+        // fields and methods:
+        skipMembers(input);
+        skipMembers(input);
+        List<String> annotationTypes = new ArrayList<>();
+        int attributes = input.readUnsignedShort();
+        for (int i = 0; i < attributes; i++) {
+            String name = utf8[input.readUnsignedShort()];
+            int length = input.readInt();
+            if ("RuntimeVisibleAnnotations".equals(name)) {
+                int annotations = input.readUnsignedShort();
+                for (int j = 0; j < annotations; j++) {
+                    annotationTypes.add(descriptorToClassName(utf8[input.readUnsignedShort()]));
+                    skipElementValuePairs(input);
+                }
+            } else {
+                input.skipBytes(length);
+            }
+        }
+        return new ClassMetadataReader(className, accessFlags, annotationTypes);
+    }
+
+    static void skipMembers(DataInputStream input) throws IOException {
+        int members = input.readUnsignedShort();
+        for (int i = 0; i < members; i++) {
+            // access_flags, name_index, descriptor_index:
+            input.skipBytes(6);
+            int attributes = input.readUnsignedShort();
+            for (int j = 0; j < attributes; j++) {
+                input.skipBytes(2);
+                input.skipBytes(input.readInt());
+            }
+        }
+    }
+
+    static void skipElementValuePairs(DataInputStream input) throws IOException {
+        int pairs = input.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            input.skipBytes(2);
+            skipElementValue(input);
+        }
+    }
+
+    static void skipElementValue(DataInputStream input) throws IOException {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                input.skipBytes(4);
+                break;
+            case '@':
+                input.skipBytes(2);
+                skipElementValuePairs(input);
+                break;
+            case '[':
+                int values = input.readUnsignedShort();
+                for (int i = 0; i < values; i++) {
+                    skipElementValue(input);
+                }
+                break;
+            default:
+                // B C D F I J S Z s c:
+                input.skipBytes(2);
+        }
+    }
+
+    static String descriptorToClassName(String descriptor) {
+        // Lcom/example/Foo; -> com.example.Foo
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    public String getClassName() {
+        return this.className;
+    }
+
+    public List<String> getAnnotationTypes() {
+        return this.annotationTypes;
+    }
+
+    public boolean isInterface() {
+        return (this.accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (this.accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum() {
+        return (this.accessFlags & ACC_ENUM) != 0;
+    }
+}
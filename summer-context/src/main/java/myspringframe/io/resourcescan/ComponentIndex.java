@@ -0,0 +1,83 @@
+package myspringframe.io.resourcescan;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 读取summer-processor在编译期生成的META-INF/summer.components索引。
+ * 索引只描述它所在的classpath根目录(目录或jar)，没有索引的根目录仍需扫描。
+ */
+public class ComponentIndex {
+    public static final String COMPONENT_INDEX = "META-INF/summer.components";
+
+    final Set<String> classNames;
+    // 包含索引的classpath根目录，如file:/app/classes/、jar:file:/lib/a.jar!/:
+    final Set<String> roots;
+
+    ComponentIndex(Set<String> classNames, Set<String> roots) {
+        this.classNames = classNames;
+        this.roots = roots;
+    }
+
+    /**
+     * classpath中不存在索引时返回null。
+     */
+    public static ComponentIndex load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> en = classLoader.getResources(COMPONENT_INDEX);
+        if (!en.hasMoreElements()) {
+            return null;
+        }
+        Set<String> classNames = new LinkedHashSet<>();
+        Set<String> roots = new HashSet<>();
+        while (en.hasMoreElements()) {
+            URL url = en.nextElement();
+            roots.add(rootOf(url));
+            try (InputStream input = url.openStream();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        classNames.add(line);
+                    }
+                }
+            }
+        }
+        return new ComponentIndex(classNames, roots);
+    }
+
+    static String rootOf(URL url) throws IOException {
+        String s;
+        try {
+            s = url.toURI().toString();
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid component index url: " + url, e);
+        }
+        return s.substring(0, s.length() - COMPONENT_INDEX.length());
+    }
+
+    // root的格式与ResourceResolver.rootOf()一致:
+    public boolean containsRoot(String root) {
+        return this.roots.contains(root);
+    }
+
+    public Set<String> getClassNames(String basePackage) {
+        if (basePackage.isEmpty()) {
+            return new LinkedHashSet<>(this.classNames);
+        }
+        String prefix = basePackage + ".";
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : this.classNames) {
+            if (name.startsWith(prefix)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,113 @@
+package myspringframe.io.resourcescan;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.util.*;
+
+/**
+ * 缓存扫描过程中打开的jar FileSystem，同一个jar只打开一次，超过上限时关闭最久未使用且空闲的FileSystem。
+ */
+public class JarFileSystemCache implements Closeable {
+    public static final int DEFAULT_MAX_OPEN = 32;
+
+    final int maxOpen;
+    // access-order，最久未使用的在前:
+    final LinkedHashMap<URI, CachedFileSystem> fileSystems = new LinkedHashMap<>(16, 0.75f, true);
+    boolean closed = false;
+
+    public JarFileSystemCache() {
+        this(DEFAULT_MAX_OPEN);
+    }
+
+    public JarFileSystemCache(int maxOpen) {
+        this.maxOpen = maxOpen;
+    }
+
+    /**
+     * 获取jar对应的FileSystem，使用完毕后必须调用release()。
+     */
+    public synchronized FileSystem acquire(URI jarUri) throws IOException {
+        if (this.closed) {
+            throw new IllegalStateException("JarFileSystemCache is closed.");
+        }
+        CachedFileSystem cached = this.fileSystems.get(jarUri);
+        if (cached == null) {
+            cached = open(jarUri);
+            this.fileSystems.put(jarUri, cached);
+        }
+        cached.refs++;
+        evictIdle();
+        return cached.fileSystem;
+    }
+
+    public synchronized void release(URI jarUri) throws IOException {
+        CachedFileSystem cached = this.fileSystems.get(jarUri);
+        if (cached != null) {
+            cached.refs--;
+            evictIdle();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.closed = true;
+        IOException exception = null;
+        for (CachedFileSystem cached : this.fileSystems.values()) {
+            try {
+                cached.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        this.fileSystems.clear();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    void evictIdle() throws IOException {
+        Iterator<CachedFileSystem> it = this.fileSystems.values().iterator();
+        while (this.fileSystems.size() > this.maxOpen && it.hasNext()) {
+            CachedFileSystem cached = it.next();
+            // 正在被遍历的FileSystem不能关闭，暂时允许超过上限:
+            if (cached.refs == 0) {
+                it.remove();
+                cached.close();
+            }
+        }
+    }
+
+    static CachedFileSystem open(URI jarUri) throws IOException {
+        try {
+            return new CachedFileSystem(FileSystems.newFileSystem(jarUri, Collections.emptyMap()), true);
+        } catch (FileSystemAlreadyExistsException e) {
+            // 由其他代码打开的FileSystem，不由本缓存关闭:
+            return new CachedFileSystem(FileSystems.getFileSystem(jarUri), false);
+        }
+    }
+
+    static class CachedFileSystem {
+        final FileSystem fileSystem;
+        final boolean owned;
+        int refs = 0;
+
+        CachedFileSystem(FileSystem fileSystem, boolean owned) {
+            this.fileSystem = fileSystem;
+            this.owned = owned;
+        }
+
+        void close() throws IOException {
+            if (this.owned) {
+                this.fileSystem.close();
+            }
+        }
+    }
+}
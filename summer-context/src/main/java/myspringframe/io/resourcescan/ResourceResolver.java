@@ -1,60 +1,122 @@
 package myspringframe.io.resourcescan;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 
 public class ResourceResolver {
     String basePackage;
+    final JarFileSystemCache jarFileSystems;
+    // 返回true的classpath根目录不扫描:
+    Predicate<String> skippedRoots = root -> false;
 
     public ResourceResolver(String backPackage){
+        this(backPackage, null);
+    }
+
+    /**
+     * @param jarFileSystems 多次扫描共享的jar FileSystem缓存，为null时每次扫描单独打开并在结束后关闭
+     */
+    public ResourceResolver(String backPackage, JarFileSystemCache jarFileSystems){
         this.basePackage=backPackage;
+        this.jarFileSystems = jarFileSystems;
+    }
+
+    /**
+     * 跳过指定的classpath根目录，root为根目录的URI，如file:/app/classes/、jar:file:/lib/a.jar!/。
+     */
+    public ResourceResolver skipRoots(Predicate<String> skippedRoots) {
+        this.skippedRoots = skippedRoots;
+        return this;
     }
+
     public <R> List<R> scan(Function<Resource,R> mapper) throws IOException, URISyntaxException {
+        List<R> res = Collections.synchronizedList(new ArrayList<>());
+        scan(mapper, res::add);
+        return res;
+    }
+
+    /**
+     * 并行扫描所有classpath根目录，mapper返回的非null结果直接交给consumer，mapper和consumer必须是线程安全的。
+     */
+    public <R> void scan(Function<Resource,R> mapper, Consumer<R> consumer) throws IOException, URISyntaxException {
         System.out.println(basePackage);
         String basePackagePath = this.basePackage.replace(".", "/");
-        String path = basePackagePath;
-        List<R> res=new ArrayList<>();
+        List<URI> roots = new ArrayList<>();
         ClassLoader classLoader=getContextClassLoader();
-        Enumeration<URL> en = classLoader.getResources(path);
+        Enumeration<URL> en = classLoader.getResources(basePackagePath);
         while (en.hasMoreElements()){
-            URI uri=en.nextElement().toURI();
-            String uriStr = removeTrailingSlash(uri.toString());
-            String uriBaseStr = uriStr.substring(0, uriStr.length() - basePackagePath.length());
-            if (uriStr.startsWith("file:")){
-                uriBaseStr=uriBaseStr.substring(5);
+            URI uri = en.nextElement().toURI();
+            if (!this.skippedRoots.test(rootOf(uri, basePackagePath))) {
+                roots.add(uri);
             }
-            if (uriStr.startsWith("jar:")){
-                scanFile(true,uriBaseStr,jarUriTopath(basePackagePath,uri),res,mapper);
+        }
+        JarFileSystemCache cache = this.jarFileSystems != null ? this.jarFileSystems : new JarFileSystemCache();
+        try {
+            roots.parallelStream().forEach(uri -> {
+                try {
+                    scanRoot(cache, basePackagePath, uri, mapper, consumer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (cache != this.jarFileSystems) {
+                cache.close();
             }
-            else {
-                scanFile(false,uriBaseStr, Paths.get(uri),res,mapper);
+        }
+    }
+
+    <R> void scanRoot(JarFileSystemCache cache, String basePackagePath, URI uri, Function<Resource,R> mapper, Consumer<R> consumer)
+            throws IOException {
+        String uriStr = removeTrailingSlash(uri.toString());
+        String uriBaseStr = uriStr.substring(0, uriStr.length() - basePackagePath.length());
+        if (uriStr.startsWith("file:")){
+            uriBaseStr=uriBaseStr.substring(5);
+        }
+        if (uriStr.startsWith("jar:")){
+            URI jarUri = jarUriOf(uri);
+            FileSystem fs = cache.acquire(jarUri);
+            try {
+                scanFile(true, uriBaseStr, fs.getPath(basePackagePath), mapper, consumer);
+            } finally {
+                cache.release(jarUri);
             }
         }
-        return res;
+        else {
+            scanFile(false,uriBaseStr, Paths.get(uri), mapper, consumer);
+        }
     }
 
-    public <R> void scanFile(boolean isJar, String base, Path root,List<R> collector,Function<Resource,R> mapper) throws
+    public <R> void scanFile(boolean isJar, String base, Path root, Function<Resource,R> mapper, Consumer<R> consumer) throws
             IOException{
         String baseDir=removeTrailingSlash(base);
-        Files.walk(root).filter(Files::isRegularFile).forEach(file->{
-            Resource res=null;
-            if (isJar){
-                res=new Resource(baseDir,removeLeadingSlash(file.toString()));
-            }
-            else{
-                String path=file.toString();
-                String name=removeLeadingSlash(path.substring(baseDir.length()));
-                res=new Resource(path, name);
-            }
-            R r=mapper.apply(res);
-            if (r!=null) collector.add(r);
-        });
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                Resource res=null;
+                if (isJar){
+                    res=new Resource(baseDir,removeLeadingSlash(file.toString()));
+                }
+                else{
+                    String path=file.toString();
+                    String name=removeLeadingSlash(path.substring(baseDir.length()));
+                    res=new Resource(path, name);
+                }
+                R r=mapper.apply(res);
+                if (r!=null) consumer.accept(r);
+            });
+        }
     }
     public ClassLoader getContextClassLoader(){
         ClassLoader cl=null;
@@ -76,11 +138,21 @@ public class ResourceResolver {
         return s;
     }
 
-    Path jarUriTopath(String basePackagePath, URI jarUri) throws IOException{
-        Map<String, String> env = new HashMap<>();
-        FileSystem fs = FileSystems.newFileSystem(jarUri, env);
-        Path path = fs.getPath(basePackagePath);
-        return path;
+    // file:/app/classes/com/example/ -> file:/app/classes/
+    static String rootOf(URI uri, String basePackagePath) {
+        String s = uri.toString();
+        if (s.endsWith("/")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        String root = s.substring(0, s.length() - basePackagePath.length());
+        return root.endsWith("/") ? root : root + "/";
+    }
+
+    // jar:file:/app.jar!/com/example -> jar:file:/app.jar
+    URI jarUriOf(URI uri) {
+        String s = uri.toString();
+        int n = s.indexOf("!/");
+        return URI.create(n < 0 ? s : s.substring(0, n));
     }
 
 
@@ -0,0 +1,67 @@
+package myspringframe.Utils;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class YamlUtilsTest extends TestCase {
+
+    public void testMergeKeys() {
+        Map<String, Object> map = load(
+                "a: &a {x: 1, y: 1, n: {p: 1}}",
+                "b: &b {x: 2, z: 2, n: {q: 2}}",
+                "c:",
+                "  y: 3",
+                "  <<: [*a, *b]",
+                "d:",
+                "  <<: *b",
+                "  x: 4",
+                "e:",
+                "  f:",
+                "    <<: [*a]",
+                "    g: &g",
+                "      <<: *b",
+                "      z: 9",
+                "h:",
+                "  <<: *g");
+        // 显式的key优先，序列中靠前的映射优先，嵌套映射整体合并:
+        assertEquals("3", map.get("c.y"));
+        assertEquals("1", map.get("c.x"));
+        assertEquals("2", map.get("c.z"));
+        assertEquals("1", map.get("c.n.p"));
+        assertNull(map.get("c.n.q"));
+        // 显式的key出现在<<之后仍然优先:
+        assertEquals("4", map.get("d.x"));
+        assertEquals("2", map.get("d.z"));
+        // 嵌套映射中的<<:
+        assertEquals("1", map.get("e.f.x"));
+        assertEquals("9", map.get("e.f.g.z"));
+        assertEquals("2", map.get("e.f.g.x"));
+        // 引用本身包含<<的映射:
+        assertEquals("9", map.get("h.z"));
+        assertEquals("2", map.get("h.n.q"));
+    }
+
+    public void testScalarsAndLists() {
+        Map<String, Object> map = load(
+                "app:",
+                "  title: Summer",
+                "  version: 1.0",
+                "  empty: ~",
+                "  ports: [8080, 8081]");
+        assertEquals("Summer", map.get("app.title"));
+        // 不做类型推断，保留原始文本:
+        assertEquals("1.0", map.get("app.version"));
+        // null值输出为空字符串:
+        assertEquals("", map.get("app.empty"));
+        assertEquals("8080", map.get("app.ports[0]"));
+        assertEquals("8081", map.get("app.ports[1]"));
+    }
+
+    Map<String, Object> load(String... lines) {
+        String yaml = String.join("\n", lines) + "\n";
+        return YamlUtils.loadYamlAsPlainMap(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
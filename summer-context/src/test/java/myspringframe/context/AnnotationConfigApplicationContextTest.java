@@ -1,11 +1,44 @@
 package myspringframe.context;
 
 import junit.framework.TestCase;
+import myspringframe.context.binding.BindingApplication;
+import myspringframe.context.binding.PoolProperties;
+import myspringframe.context.binding.PoolService;
+import myspringframe.context.binding.ServerProperties;
+import myspringframe.context.events.AuditListener;
+import myspringframe.context.events.EventApplication;
+import myspringframe.context.generated.GeneratedApplication;
+import myspringframe.context.generated.MessageRepository;
+import myspringframe.context.generated.MessageService;
+import myspringframe.context.generated.MessageService$$SummerBeanFactory;
+import myspringframe.context.lazy.EagerService;
+import myspringframe.context.lazy.LazyApplication;
+import myspringframe.context.lazy.LazyService;
+import myspringframe.context.lazy.PlainService;
+import myspringframe.context.scope.PooledBuffer;
+import myspringframe.context.scope.PrototypeTask;
+import myspringframe.context.scope.ScopeApplication;
+import myspringframe.context.scope.ThreadBoundState;
+import myspringframe.context.shutdown.ShutdownApplication;
+import myspringframe.context.shutdown.SlowCache;
+import myspringframe.context.typeindex.*;
+import myspringframe.exception.BeanCreationException;
+import myspringframe.exception.NoSuchBeanDefinitionException;
+import myspringframe.exception.PropertyBindException;
 import myspringframe.io.propertyresolver.PropertyResolver;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 public class AnnotationConfigApplicationContextTest extends TestCase
@@ -14,6 +47,273 @@ public class AnnotationConfigApplicationContextTest extends TestCase
     public void testAnnotationConfigApplicationContext() throws IOException, URISyntaxException {
 
     }
+
+    @Test
+    public void testTypeIndexLookup() throws IOException, URISyntaxException {
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(TypeIndexApplication.class, createPropertyResolver())) {
+            // 多个实现时返回@Primary:
+            assertTrue(ctx.getBean(Greeting.class) instanceof EnglishGreeting);
+            assertEquals("hello, bob", ctx.getBean(GreetingService.class).greet("bob"));
+            // 按@Order排序:
+            List<Greeting> greetings = ctx.getBeans(Greeting.class);
+            assertEquals(2, greetings.size());
+            assertTrue(greetings.get(0) instanceof ChineseGreeting);
+            // 唯一实现，按父类查找:
+            assertEquals(1, ctx.getBean(FirstCounter.class).next());
+            assertEquals(2, ctx.getBeans(Counter.class).size());
+            // 多个实现且没有@Primary:
+            assertNull(ctx.findBean(Counter.class));
+            assertNull(ctx.findBean(Runnable.class));
+            try {
+                ctx.getBean(Counter.class);
+                fail("Expected NoSuchBeanDefinitionException");
+            } catch (NoSuchBeanDefinitionException e) {
+                // ok
+            }
+        }
+    }
+    @Test
+    public void testLazyBeanCreatedOnFirstGetBean() throws IOException, URISyntaxException {
+        resetLazyCounters();
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(LazyApplication.class, createPropertyResolver())) {
+            assertEquals(0, LazyService.CREATED.get());
+            assertEquals(1, EagerService.CREATED.get());
+            assertEquals(1, PlainService.CREATED.get());
+            LazyService lazy = ctx.getBean(LazyService.class);
+            assertSame(lazy, ctx.getBean(LazyService.class));
+            assertEquals(1, LazyService.CREATED.get());
+        }
+    }
+
+    @Test
+    public void testLazyInitByDefault() throws IOException, URISyntaxException {
+        resetLazyCounters();
+        PropertyResolver pr = createPropertyResolver();
+        pr.setProperty("summer.context.lazy-init", "true");
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(LazyApplication.class, pr)) {
+            // @Lazy(false)仍然立即创建:
+            assertEquals(1, EagerService.CREATED.get());
+            assertEquals(0, PlainService.CREATED.get());
+            assertNotNull(ctx.getBean(PlainService.class));
+            assertEquals(1, PlainService.CREATED.get());
+        }
+    }
+
+    void resetLazyCounters() {
+        LazyService.CREATED.set(0);
+        EagerService.CREATED.set(0);
+        PlainService.CREATED.set(0);
+    }
+
+    @Test
+    public void testPrototypeAndPooledScopes() throws IOException, URISyntaxException {
+        PooledBuffer.DESTROYED.set(0);
+        PropertyResolver pr = createPropertyResolver();
+        pr.setProperty("summer.context.pooled-scope.max-idle", "1");
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ScopeApplication.class, pr, threadScope())) {
+            assertNotSame(ctx.getBean(PrototypeTask.class), ctx.getBean(PrototypeTask.class));
+
+            PooledBuffer first = ctx.getBean(PooledBuffer.class);
+            PooledBuffer second = ctx.getBean(PooledBuffer.class);
+            assertNotSame(first, second);
+            ctx.releaseBean("pooledBuffer", first);
+            // 空闲实例已达max-idle，第二个被销毁:
+            ctx.releaseBean("pooledBuffer", second);
+            assertEquals(1, PooledBuffer.DESTROYED.get());
+            assertSame(first, ctx.getBean(PooledBuffer.class));
+            ctx.releaseBean("pooledBuffer", first);
+            try {
+                ctx.releaseBean("pooledBuffer", first);
+                fail("Expected IllegalStateException");
+            } catch (IllegalStateException e) {
+                // ok
+            }
+
+            ThreadBoundState state = ctx.getBean(ThreadBoundState.class);
+            assertSame(state, ctx.getBean(ThreadBoundState.class));
+        }
+        // 关闭时销毁池中的空闲实例:
+        assertEquals(2, PooledBuffer.DESTROYED.get());
+    }
+
+    @Test
+    public void testUnknownScope() throws IOException, URISyntaxException {
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ScopeApplication.class, createPropertyResolver())) {
+            ctx.getBean(ThreadBoundState.class);
+            fail("Expected BeanCreationException");
+        } catch (BeanCreationException e) {
+            assertTrue(e.getMessage().contains("thread"));
+        }
+    }
+
+    Map<String, Scope> threadScope() {
+        ThreadLocal<Map<String, Object>> instances = ThreadLocal.withInitial(HashMap::new);
+        return Collections.singletonMap("thread", (def, objectFactory) -> instances.get().computeIfAbsent(def.getName(), name -> objectFactory.get()));
+    }
+
+    @Test
+    public void testConfigurationPropertiesBinding() throws IOException, URISyntaxException {
+        PropertyResolver pr = createBindingPropertyResolver();
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(BindingApplication.class, pr)) {
+            ServerProperties server = ctx.getBean(ServerProperties.class);
+            assertEquals("localhost", server.getHost());
+            assertEquals(8080, server.getPort());
+            assertEquals(Duration.ofSeconds(30), server.getTimeout());
+            assertEquals(Arrays.asList("/api", "/static"), server.getPaths());
+            assertEquals("summer", server.getHeaders().get("X-Powered-By"));
+            assertTrue(server.getSsl().isEnabled());
+            assertEquals("TLSv1.2", server.getSsl().getProtocol());
+            PoolProperties pool = ctx.getBean(PoolService.class).getProperties();
+            assertEquals(16, pool.getMaxSize());
+            assertEquals("main", pool.getName());
+        }
+    }
+
+    @Test
+    public void testConfigurationPropertiesErrorsAggregated() throws IOException, URISyntaxException {
+        PropertyResolver pr = createBindingPropertyResolver();
+        pr.setProperty("server.port", "http");
+        pr.setProperty("server.timeout", "soon");
+        pr.setProperty("server.unknown-option", "1");
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(BindingApplication.class, pr)) {
+            fail("Expected PropertyBindException");
+        } catch (PropertyBindException e) {
+            // 所有错误一次报告:
+            assertEquals(3, e.getErrors().size());
+            assertTrue(e.getMessage().contains("server.port"));
+            assertTrue(e.getMessage().contains("server.timeout"));
+            assertTrue(e.getMessage().contains("server.unknown-option"));
+        }
+    }
+
+    PropertyResolver createBindingPropertyResolver() {
+        PropertyResolver pr = createPropertyResolver();
+        pr.setProperty("server.host", "localhost");
+        pr.setProperty("server.port", "8080");
+        pr.setProperty("server.timeout", "PT30S");
+        pr.setProperty("server.paths[0]", "/api");
+        pr.setProperty("server.paths[1]", "/static");
+        pr.setProperty("server.headers.X-Powered-By", "summer");
+        pr.setProperty("server.ssl.enabled", "true");
+        pr.setProperty("pool.max-size", "16");
+        pr.setProperty("pool.name", "main");
+        return pr;
+    }
+
+    @Test
+    public void testGeneratedBeanFactoryUsed() throws IOException, URISyntaxException {
+        MessageService$$SummerBeanFactory.INSTANTIATED.set(0);
+        MessageService$$SummerBeanFactory.INJECTED.set(0);
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(GeneratedApplication.class, createPropertyResolver())) {
+            MessageService service = ctx.getBean(MessageService.class);
+            MessageRepository repository = ctx.getBean(MessageRepository.class);
+            assertSame(repository, service.getRepository());
+            assertSame(repository, service.getFieldRepository());
+            assertEquals("Scan App", service.getTitle());
+            assertEquals(1, MessageService$$SummerBeanFactory.INSTANTIATED.get());
+            assertEquals(1, MessageService$$SummerBeanFactory.INJECTED.get());
+        }
+    }
+
+    @Test
+    public void testGeneratedBeanFactoryDisabled() throws IOException, URISyntaxException {
+        MessageService$$SummerBeanFactory.INSTANTIATED.set(0);
+        MessageService$$SummerBeanFactory.INJECTED.set(0);
+        PropertyResolver pr = createPropertyResolver();
+        pr.setProperty("summer.context.generated-factories", "false");
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(GeneratedApplication.class, pr)) {
+            // 通过反射创建和注入，结果相同:
+            MessageService service = ctx.getBean(MessageService.class);
+            assertSame(ctx.getBean(MessageRepository.class), service.getFieldRepository());
+            assertEquals("Scan App", service.getTitle());
+            assertEquals(0, MessageService$$SummerBeanFactory.INSTANTIATED.get());
+            assertEquals(0, MessageService$$SummerBeanFactory.INJECTED.get());
+        }
+    }
+
+    @Test
+    public void testSnapshotRestore() throws IOException, URISyntaxException {
+        Path dir = Files.createTempDirectory("summer-snapshot");
+        Path file = dir.resolve("context.snapshot");
+        try {
+            PropertyResolver pr = createPropertyResolver();
+            pr.setProperty("summer.context.snapshot-file", file.toString());
+            try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(TypeIndexApplication.class, pr)) {
+                assertTrue(ctx.getBean(Greeting.class) instanceof EnglishGreeting);
+            }
+            assertTrue(Files.isRegularFile(file));
+            // 从快照恢复时不重写快照文件:
+            FileTime marker = FileTime.fromMillis(0);
+            Files.setLastModifiedTime(file, marker);
+            try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(TypeIndexApplication.class, pr)) {
+                assertTrue(ctx.getBean(Greeting.class) instanceof EnglishGreeting);
+                assertEquals("hello, bob", ctx.getBean(GreetingService.class).greet("bob"));
+                assertEquals(2, ctx.getBeans(Counter.class).size());
+            }
+            assertEquals(marker, Files.getLastModifiedTime(file));
+
+            // 损坏的快照被忽略并重新生成:
+            Files.write(file, new byte[] { 0x53, 0x55, 0x4d, 0x53, 0, 0, 0, 1, 0 });
+            Files.setLastModifiedTime(file, marker);
+            try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(TypeIndexApplication.class, pr)) {
+                assertTrue(ctx.getBean(Greeting.class) instanceof EnglishGreeting);
+            }
+            assertFalse(marker.equals(Files.getLastModifiedTime(file)));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testShutdownInDependencyOrder() throws IOException, URISyntaxException {
+        ShutdownApplication.DESTROYED.clear();
+        SlowCache.flushMillis = 0;
+        PropertyResolver pr = createPropertyResolver();
+        pr.setProperty("summer.context.shutdown-threads", "4");
+        new AnnotationConfigApplicationContext(ShutdownApplication.class, pr).close();
+        List<String> destroyed = ShutdownApplication.DESTROYED;
+        assertEquals(4, destroyed.size());
+        // 注入了其他Bean的先销毁:
+        assertTrue(destroyed.indexOf("service") < destroyed.indexOf("repository"));
+        assertTrue(destroyed.indexOf("repository") < destroyed.indexOf("pool"));
+        assertTrue(destroyed.contains("cache"));
+    }
+
+    @Test
+    public void testShutdownTimeout() throws IOException, URISyntaxException {
+        ShutdownApplication.DESTROYED.clear();
+        SlowCache.flushMillis = 5000;
+        PropertyResolver pr = createPropertyResolver();
+        pr.setProperty("summer.context.shutdown-timeout", "PT0.3S");
+        pr.setProperty("summer.context.shutdown-threads", "4");
+        try {
+            AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ShutdownApplication.class, pr);
+            long start = System.currentTimeMillis();
+            ctx.close();
+            // 不等待超时的销毁方法:
+            assertTrue(System.currentTimeMillis() - start < 3000);
+            assertFalse(ShutdownApplication.DESTROYED.contains("cache"));
+            assertTrue(ShutdownApplication.DESTROYED.contains("pool"));
+        } finally {
+            SlowCache.flushMillis = 0;
+        }
+    }
+
+    @Test
+    public void testContextEvents() throws IOException, URISyntaxException {
+        AuditListener listener;
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(EventApplication.class, createPropertyResolver())) {
+            listener = ctx.getBean(AuditListener.class);
+            assertEquals(Collections.singletonList("refreshed"), listener.received);
+            ctx.publishEvent("login");
+            ctx.publishEvent("logout");
+            assertEquals(1, listener.received.size());
+        }
+        // 关闭时先发布ContextClosingEvent，再投递未满的一批:
+        assertEquals(Arrays.asList("refreshed", "closing", "audit:[login, logout]"), listener.received);
+    }
+
     PropertyResolver createPropertyResolver() {
         Properties ps = new Properties();
         ps.put("app.title", "Scan App");
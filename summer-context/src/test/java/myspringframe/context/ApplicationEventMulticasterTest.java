@@ -0,0 +1,162 @@
+package myspringframe.context;
+
+import junit.framework.TestCase;
+import myspringframe.annotation.EventListener;
+import myspringframe.annotation.Order;
+import myspringframe.exception.BeanDefinitionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+public class ApplicationEventMulticasterTest extends TestCase {
+
+    public static class OrderedListeners {
+        final List<String> received = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        @Order(2)
+        public void second(String event) {
+            received.add("second:" + event);
+        }
+
+        @EventListener
+        @Order(1)
+        public void first(CharSequence event) {
+            received.add("first:" + event);
+        }
+
+        @EventListener
+        public void number(Integer event) {
+            received.add("number:" + event);
+        }
+    }
+
+    public static class BatchListener {
+        final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+        @EventListener(batchSize = 3, delay = 60000)
+        public void onBatch(List<String> events) {
+            batches.add(new ArrayList<>(events));
+        }
+    }
+
+    public static class TimedBatchListener {
+        final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+        @EventListener(batchSize = 100, delay = 50)
+        public void onBatch(List<String> events) {
+            batches.add(new ArrayList<>(events));
+        }
+    }
+
+    public static class CoalescingListener {
+        final List<String> received = new CopyOnWriteArrayList<>();
+
+        @EventListener(coalesce = true, delay = 100)
+        public void onEvent(String event) {
+            received.add(event);
+        }
+    }
+
+    public static class FailingAsyncListener {
+        final List<String> received = new CopyOnWriteArrayList<>();
+
+        @EventListener(async = true)
+        public void fail(String event) {
+            throw new IllegalStateException("async listener failed");
+        }
+
+        @EventListener(async = true)
+        public void onEvent(String event) {
+            received.add(event);
+        }
+    }
+
+    public static class BatchWithoutDelayListener {
+        @EventListener(batchSize = 10)
+        public void onBatch(List<String> events) {
+        }
+    }
+
+    public void testSyncListenersInOrder() throws Exception {
+        OrderedListeners bean = new OrderedListeners();
+        ApplicationEventMulticaster multicaster = create(bean);
+        multicaster.publish("a");
+        multicaster.publish(7);
+        assertEquals(Arrays.asList("first:a", "second:a", "number:7"), bean.received);
+        multicaster.close(Duration.ofSeconds(1));
+    }
+
+    public void testBatchDeliveredWhenFull() throws Exception {
+        BatchListener bean = new BatchListener();
+        ApplicationEventMulticaster multicaster = create(bean);
+        for (String event : Arrays.asList("a", "b", "c", "d", "e")) {
+            multicaster.publish(event);
+        }
+        // 满一批后在线程池中投递:
+        waitUntil(() -> !bean.batches.isEmpty());
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b", "c")), bean.batches);
+        // 关闭时投递不足batchSize的一批:
+        multicaster.close(Duration.ofSeconds(1));
+        assertEquals(Arrays.asList(Arrays.asList("a", "b", "c"), Arrays.asList("d", "e")), bean.batches);
+    }
+
+    public void testBatchDeliveredAfterDelay() throws Exception {
+        TimedBatchListener bean = new TimedBatchListener();
+        ApplicationEventMulticaster multicaster = create(bean);
+        multicaster.publish("a");
+        multicaster.publish("b");
+        waitUntil(() -> !bean.batches.isEmpty());
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b")), bean.batches);
+        multicaster.close(Duration.ofSeconds(1));
+        assertEquals(1, bean.batches.size());
+    }
+
+    public void testCoalesceKeepsLatest() throws Exception {
+        CoalescingListener bean = new CoalescingListener();
+        ApplicationEventMulticaster multicaster = create(bean);
+        multicaster.publish("a");
+        multicaster.publish("b");
+        multicaster.publish("c");
+        waitUntil(() -> !bean.received.isEmpty());
+        assertEquals(Collections.singletonList("c"), bean.received);
+        multicaster.close(Duration.ofSeconds(1));
+        assertEquals(Collections.singletonList("c"), bean.received);
+    }
+
+    public void testAsyncListenerExceptionIsLogged() throws Exception {
+        FailingAsyncListener bean = new FailingAsyncListener();
+        ApplicationEventMulticaster multicaster = create(bean);
+        multicaster.publish("a");
+        multicaster.close(Duration.ofSeconds(5));
+        assertEquals(Collections.singletonList("a"), bean.received);
+    }
+
+    public void testBatchSizeRequiresDelay() throws Exception {
+        try {
+            create(new BatchWithoutDelayListener());
+            fail("Expected BeanDefinitionException");
+        } catch (BeanDefinitionException e) {
+            assertTrue(e.getMessage().contains("delay"));
+        }
+    }
+
+    ApplicationEventMulticaster create(Object bean) throws Exception {
+        BeanDefinition def = new BeanDefinition("listener", bean.getClass(), bean.getClass().getConstructor(), 0, false, null, null, null, null);
+        return new ApplicationEventMulticaster(Collections.singletonList(def), d -> bean, null, 2);
+    }
+
+    static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // 再等待一段时间，确认没有多余的投递:
+        Thread.sleep(100);
+    }
+}
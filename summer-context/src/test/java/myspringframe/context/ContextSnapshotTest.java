@@ -0,0 +1,44 @@
+package myspringframe.context;
+
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+public class ContextSnapshotTest extends TestCase {
+
+    public void testIsSnapshotFile() {
+        Path snapshot = Paths.get("/app/cache/context.snapshot");
+        assertTrue(ContextSnapshot.isSnapshotFile(snapshot, snapshot));
+        // write()创建的临时文件:
+        assertTrue(ContextSnapshot.isSnapshotFile(Paths.get("/app/cache/context.snapshot8123456789.tmp"), snapshot));
+        assertFalse(ContextSnapshot.isSnapshotFile(Paths.get("/app/cache/context.snapshot.tmp"), snapshot));
+        assertFalse(ContextSnapshot.isSnapshotFile(Paths.get("/app/cache/context.snapshot-old.tmp"), snapshot));
+        assertFalse(ContextSnapshot.isSnapshotFile(Paths.get("/app/cache/context.snapshot.bak"), snapshot));
+        assertFalse(ContextSnapshot.isSnapshotFile(Paths.get("/app/other/context.snapshot123.tmp"), snapshot));
+        assertFalse(ContextSnapshot.isSnapshotFile(Paths.get("/app/cache/application.yml"), snapshot));
+    }
+
+    public void testReadRejectsOtherHash() throws Exception {
+        Path dir = Files.createTempDirectory("summer-snapshot");
+        Path file = dir.resolve("context.snapshot");
+        try {
+            new ContextSnapshot(new byte[] { 1, 2, 3 }, Collections.emptyList(), Collections.singletonList("a")).write(file);
+            ContextSnapshot snapshot = ContextSnapshot.read(file, new byte[] { 1, 2, 3 }, getClass().getClassLoader());
+            assertNotNull(snapshot);
+            assertEquals(Collections.singletonList("a"), snapshot.creationOrder);
+            assertNull(ContextSnapshot.read(file, new byte[] { 1, 2, 4 }, getClass().getClassLoader()));
+            assertNull(ContextSnapshot.read(dir.resolve("missing.snapshot"), new byte[] { 1, 2, 3 }, getClass().getClassLoader()));
+            // 临时文件已被替换或删除:
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(1, files.count());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package myspringframe.context;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PooledScopeTest extends TestCase {
+
+    BeanDefinition def;
+
+    @Override
+    protected void setUp() throws Exception {
+        def = new BeanDefinition("buffer", Object.class, Object.class.getConstructor(), 0, false, null, null, null, null);
+    }
+
+    public void testIdleInstancesCappedAtMaxIdle() {
+        // 3个空闲名额分布在2个分段中，每个分段最多2个:
+        PooledScope scope = new PooledScope(3, 2);
+        List<Object> destroyed = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            scope.release(def, new Object(), destroyed::add);
+        }
+        assertEquals(3, scope.getIdleCount(def));
+        assertEquals(1, destroyed.size());
+    }
+
+    public void testReleasedInstanceIsReused() {
+        PooledScope scope = new PooledScope(2, 1);
+        Object instance = scope.get(def, Object::new);
+        scope.release(def, instance, destroyed -> fail("Should not destroy"));
+        assertSame(instance, scope.get(def, Object::new));
+        assertEquals(0, scope.getIdleCount(def));
+        assertNotSame(instance, scope.get(def, Object::new));
+    }
+
+    public void testDoubleReleaseRejected() {
+        PooledScope scope = new PooledScope(2, 1);
+        Object instance = new Object();
+        scope.release(def, instance, destroyed -> fail("Should not destroy"));
+        try {
+            scope.release(def, instance, destroyed -> fail("Should not destroy"));
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // ok
+        }
+        assertEquals(1, scope.getIdleCount(def));
+    }
+
+    public void testDestroyDrainsIdleInstances() {
+        PooledScope scope = new PooledScope(4, 2);
+        scope.release(def, new Object(), destroyed -> fail("Should not destroy"));
+        scope.release(def, new Object(), destroyed -> fail("Should not destroy"));
+        List<Object> destroyed = new ArrayList<>();
+        scope.destroy((d, instance) -> destroyed.add(instance));
+        assertEquals(2, destroyed.size());
+        assertEquals(0, scope.getIdleCount(def));
+    }
+}
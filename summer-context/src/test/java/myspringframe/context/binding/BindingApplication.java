@@ -0,0 +1,7 @@
+package myspringframe.context.binding;
+
+import myspringframe.annotation.ComponentScan;
+
+@ComponentScan
+public class BindingApplication {
+}
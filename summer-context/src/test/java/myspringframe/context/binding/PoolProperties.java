@@ -0,0 +1,23 @@
+package myspringframe.context.binding;
+
+import myspringframe.annotation.ConfigurationProperties;
+
+// 没有无参数构造方法，按构造方法参数名绑定:
+@ConfigurationProperties(prefix = "pool")
+public class PoolProperties {
+    final int maxSize;
+    final String name;
+
+    public PoolProperties(int maxSize, String name) {
+        this.maxSize = maxSize;
+        this.name = name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,17 @@
+package myspringframe.context.binding;
+
+import myspringframe.annotation.Component;
+
+@Component
+public class PoolService {
+    final PoolProperties properties;
+
+    // @ConfigurationProperties类型的参数直接绑定:
+    public PoolService(PoolProperties properties) {
+        this.properties = properties;
+    }
+
+    public PoolProperties getProperties() {
+        return properties;
+    }
+}
@@ -0,0 +1,43 @@
+package myspringframe.context.binding;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "server", ignoreUnknownFields = false)
+public class ServerProperties {
+    String host;
+    int port;
+    Duration timeout;
+    List<String> paths;
+    Map<String, String> headers;
+    SslProperties ssl;
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public SslProperties getSsl() {
+        return ssl;
+    }
+}
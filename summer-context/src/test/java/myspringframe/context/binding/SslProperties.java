@@ -0,0 +1,14 @@
+package myspringframe.context.binding;
+
+public class SslProperties {
+    boolean enabled;
+    String protocol = "TLSv1.2";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+}
@@ -0,0 +1,29 @@
+package myspringframe.context.events;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.EventListener;
+import myspringframe.context.ContextClosingEvent;
+import myspringframe.context.ContextRefreshedEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class AuditListener {
+    public final List<String> received = new CopyOnWriteArrayList<>();
+
+    @EventListener
+    public void onRefreshed(ContextRefreshedEvent event) {
+        received.add("refreshed");
+    }
+
+    @EventListener
+    public void onClosing(ContextClosingEvent event) {
+        received.add("closing");
+    }
+
+    @EventListener(batchSize = 10, delay = 60000)
+    public void onAudit(List<String> messages) {
+        received.add("audit:" + messages);
+    }
+}
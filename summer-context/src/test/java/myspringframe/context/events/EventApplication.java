@@ -0,0 +1,7 @@
+package myspringframe.context.events;
+
+import myspringframe.annotation.ComponentScan;
+
+@ComponentScan
+public class EventApplication {
+}
@@ -0,0 +1,7 @@
+package myspringframe.context.generated;
+
+import myspringframe.annotation.Component;
+
+@Component
+public class MessageRepository {
+}
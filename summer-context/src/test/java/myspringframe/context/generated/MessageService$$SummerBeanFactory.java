@@ -0,0 +1,45 @@
+package myspringframe.context.generated;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 与summer-processor为MessageService生成的工厂相同，另外记录调用次数。
+ */
+public final class MessageService$$SummerBeanFactory implements myspringframe.context.GeneratedBeanFactory {
+
+    public static final AtomicInteger INSTANTIATED = new AtomicInteger();
+    public static final AtomicInteger INJECTED = new AtomicInteger();
+
+    static final myspringframe.context.BeanDependency[] CONSTRUCTOR = {
+            myspringframe.context.BeanDependency.autowired("", true, myspringframe.context.generated.MessageRepository.class),
+            myspringframe.context.BeanDependency.value("${app.title}", java.lang.String.class),
+    };
+
+    @Override
+    public myspringframe.context.BeanDependency[] getConstructorDependencies() {
+        return CONSTRUCTOR;
+    }
+
+    @Override
+    public Object newInstance(Object[] args) throws Exception {
+        INSTANTIATED.incrementAndGet();
+        return new myspringframe.context.generated.MessageService((myspringframe.context.generated.MessageRepository) args[0], (java.lang.String) args[1]);
+    }
+
+    static final myspringframe.context.BeanDependency[] INJECTION = {
+            myspringframe.context.BeanDependency.autowired("", true, myspringframe.context.generated.MessageRepository.class),
+    };
+
+    @Override
+    public myspringframe.context.BeanDependency[] getInjectionDependencies() {
+        return INJECTION;
+    }
+
+    @Override
+    public void inject(Object bean, Object[] values) throws Exception {
+        INJECTED.incrementAndGet();
+        if (values[0] != null) {
+            ((myspringframe.context.generated.MessageService) bean).fieldRepository = (myspringframe.context.generated.MessageRepository) values[0];
+        }
+    }
+}
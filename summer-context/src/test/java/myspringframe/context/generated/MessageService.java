@@ -0,0 +1,31 @@
+package myspringframe.context.generated;
+
+import myspringframe.annotation.Autowired;
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Value;
+
+@Component
+public class MessageService {
+    final MessageRepository repository;
+    final String title;
+
+    @Autowired
+    MessageRepository fieldRepository;
+
+    public MessageService(@Autowired MessageRepository repository, @Value("${app.title}") String title) {
+        this.repository = repository;
+        this.title = title;
+    }
+
+    public MessageRepository getRepository() {
+        return repository;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public MessageRepository getFieldRepository() {
+        return fieldRepository;
+    }
+}
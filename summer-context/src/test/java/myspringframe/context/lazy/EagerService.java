@@ -0,0 +1,16 @@
+package myspringframe.context.lazy;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Lazy(false)
+public class EagerService {
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public EagerService() {
+        CREATED.incrementAndGet();
+    }
+}
@@ -0,0 +1,7 @@
+package myspringframe.context.lazy;
+
+import myspringframe.annotation.ComponentScan;
+
+@ComponentScan
+public class LazyApplication {
+}
@@ -0,0 +1,16 @@
+package myspringframe.context.lazy;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Lazy
+public class LazyService {
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public LazyService() {
+        CREATED.incrementAndGet();
+    }
+}
@@ -0,0 +1,14 @@
+package myspringframe.context.lazy;
+
+import myspringframe.annotation.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class PlainService {
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public PlainService() {
+        CREATED.incrementAndGet();
+    }
+}
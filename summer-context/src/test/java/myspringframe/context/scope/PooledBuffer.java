@@ -0,0 +1,18 @@
+package myspringframe.context.scope;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Scope;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Scope("pooled")
+public class PooledBuffer {
+    public static final AtomicInteger DESTROYED = new AtomicInteger();
+
+    @PreDestroy
+    public void destroy() {
+        DESTROYED.incrementAndGet();
+    }
+}
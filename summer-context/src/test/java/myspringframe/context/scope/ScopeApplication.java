@@ -0,0 +1,7 @@
+package myspringframe.context.scope;
+
+import myspringframe.annotation.ComponentScan;
+
+@ComponentScan
+public class ScopeApplication {
+}
@@ -0,0 +1,9 @@
+package myspringframe.context.scope;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Scope;
+
+@Component
+@Scope("thread")
+public class ThreadBoundState {
+}
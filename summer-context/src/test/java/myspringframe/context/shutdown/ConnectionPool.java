@@ -0,0 +1,13 @@
+package myspringframe.context.shutdown;
+
+import myspringframe.annotation.Component;
+
+import javax.annotation.PreDestroy;
+
+@Component
+public class ConnectionPool {
+    @PreDestroy
+    public void close() {
+        ShutdownApplication.DESTROYED.add("pool");
+    }
+}
@@ -0,0 +1,12 @@
+package myspringframe.context.shutdown;
+
+import myspringframe.annotation.ComponentScan;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@ComponentScan
+public class ShutdownApplication {
+    // 按执行顺序记录的销毁方法:
+    public static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+}
@@ -0,0 +1,16 @@
+package myspringframe.context.shutdown;
+
+import myspringframe.annotation.Component;
+
+import javax.annotation.PreDestroy;
+
+@Component
+public class SlowCache {
+    public static volatile long flushMillis = 0;
+
+    @PreDestroy
+    public void flush() throws InterruptedException {
+        Thread.sleep(flushMillis);
+        ShutdownApplication.DESTROYED.add("cache");
+    }
+}
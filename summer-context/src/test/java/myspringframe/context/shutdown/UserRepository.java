@@ -0,0 +1,19 @@
+package myspringframe.context.shutdown;
+
+import myspringframe.annotation.Autowired;
+import myspringframe.annotation.Component;
+
+import javax.annotation.PreDestroy;
+
+@Component
+public class UserRepository {
+    @Autowired
+    ConnectionPool pool;
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        // 依赖方的销毁方法较慢时，被依赖的Bean仍然等待:
+        Thread.sleep(50);
+        ShutdownApplication.DESTROYED.add("repository");
+    }
+}
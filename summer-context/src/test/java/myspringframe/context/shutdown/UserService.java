@@ -0,0 +1,20 @@
+package myspringframe.context.shutdown;
+
+import myspringframe.annotation.Autowired;
+import myspringframe.annotation.Component;
+
+import javax.annotation.PreDestroy;
+
+@Component
+public class UserService {
+    final UserRepository repository;
+
+    public UserService(@Autowired UserRepository repository) {
+        this.repository = repository;
+    }
+
+    @PreDestroy
+    public void close() {
+        ShutdownApplication.DESTROYED.add("service");
+    }
+}
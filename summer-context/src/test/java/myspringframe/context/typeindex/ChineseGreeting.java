@@ -0,0 +1,13 @@
+package myspringframe.context.typeindex;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Order;
+
+@Component
+@Order(1)
+public class ChineseGreeting implements Greeting {
+    @Override
+    public String greet() {
+        return "ni hao";
+    }
+}
@@ -0,0 +1,5 @@
+package myspringframe.context.typeindex;
+
+public abstract class Counter {
+    public abstract int next();
+}
@@ -0,0 +1,15 @@
+package myspringframe.context.typeindex;
+
+import myspringframe.annotation.Component;
+import myspringframe.annotation.Order;
+import myspringframe.annotation.Primary;
+
+@Component
+@Primary
+@Order(2)
+public class EnglishGreeting implements Greeting {
+    @Override
+    public String greet() {
+        return "hello";
+    }
+}
@@ -0,0 +1,13 @@
+package myspringframe.context.typeindex;
+
+import myspringframe.annotation.Component;
+
+@Component
+public class FirstCounter extends Counter {
+    int count;
+
+    @Override
+    public int next() {
+        return ++count;
+    }
+}
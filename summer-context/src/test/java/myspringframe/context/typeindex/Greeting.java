@@ -0,0 +1,5 @@
+package myspringframe.context.typeindex;
+
+public interface Greeting {
+    String greet();
+}
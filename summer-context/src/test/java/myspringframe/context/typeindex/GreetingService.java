@@ -0,0 +1,17 @@
+package myspringframe.context.typeindex;
+
+import myspringframe.annotation.Autowired;
+import myspringframe.annotation.Component;
+
+@Component
+public class GreetingService {
+    final Greeting greeting;
+
+    public GreetingService(@Autowired Greeting greeting) {
+        this.greeting = greeting;
+    }
+
+    public String greet(String name) {
+        return greeting.greet() + ", " + name;
+    }
+}
@@ -0,0 +1,13 @@
+package myspringframe.context.typeindex;
+
+import myspringframe.annotation.Component;
+
+@Component
+public class SecondCounter extends Counter {
+    int count = 100;
+
+    @Override
+    public int next() {
+        return ++count;
+    }
+}
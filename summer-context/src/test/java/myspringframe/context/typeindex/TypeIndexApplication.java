@@ -0,0 +1,7 @@
+package myspringframe.context.typeindex;
+
+import myspringframe.annotation.ComponentScan;
+
+@ComponentScan
+public class TypeIndexApplication {
+}
@@ -0,0 +1,41 @@
+package myspringframe.io.propertyresolver;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+public class PropertyResolverTest extends TestCase {
+
+    public void testFailingListenerDoesNotStopOthers() {
+        Properties props = new Properties();
+        props.setProperty("app.title", "Summer");
+        PropertyResolver pr = new PropertyResolver(props);
+        List<String> changes = new ArrayList<>();
+        pr.addChangeListener("app.title", (key, oldValue, newValue) -> {
+            throw new IllegalStateException("broken listener");
+        });
+        pr.addChangeListener("app.title", (key, oldValue, newValue) -> changes.add(oldValue + "->" + newValue));
+
+        pr.setProperty("app.title", "Winter");
+        assertEquals("Winter", pr.getProperty("app.title"));
+        assertEquals(Arrays.asList("Summer->Winter"), changes);
+    }
+
+    public void testValueExpressionsOnlyCachedForCurrentSnapshot() {
+        Properties props = new Properties();
+        props.setProperty("app.name", "Summer");
+        props.setProperty("app.title", "${app.name} App");
+        PropertyResolver pr = new PropertyResolver(props, true);
+        assertEquals("Summer App", pr.getProperty("app.title"));
+        assertEquals("Summer v1", pr.getProperty("app.missing", "${app.name} v1"));
+        assertTrue(pr.valueExprs.containsKey("${app.name} App"));
+        assertFalse(pr.valueExprs.containsKey("${app.name} v1"));
+
+        pr.setProperty("app.title", "${app.name} Site");
+        assertFalse(pr.valueExprs.containsKey("${app.name} App"));
+        assertEquals("Summer Site", pr.getProperty("app.title"));
+    }
+}
@@ -0,0 +1,23 @@
+package myspringframe.io.resourcescan;
+
+import junit.framework.TestCase;
+import myspringframe.io.resourcescan.cycle.Marker;
+
+public class AnnotationClassFilterTest extends TestCase {
+
+    static final String PATH = "myspringframe/io/resourcescan/cycle/";
+
+    public void testMetaAnnotationCycleDoesNotCacheWrongResult() {
+        AnnotationClassFilter filter = new AnnotationClassFilter(getClass().getClassLoader(), Marker.class.getName());
+        assertTrue(filter.matches(PATH + "FirstBean.class"));
+        // 判断First时Second经过循环返回了false，不能被缓存:
+        assertTrue(filter.matches(PATH + "SecondBean.class"));
+        assertFalse(filter.matches(PATH + "PlainBean.class"));
+    }
+
+    public void testAnnotationsAreNotMatched() {
+        AnnotationClassFilter filter = new AnnotationClassFilter(getClass().getClassLoader(), Marker.class.getName());
+        assertFalse(filter.matches(PATH + "First.class"));
+        assertFalse(filter.matches(PATH + "Missing.class"));
+    }
+}
@@ -0,0 +1,53 @@
+package myspringframe.io.resourcescan;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ComponentIndexTest extends TestCase {
+
+    public void testIndexUsedOnlyForRootsThatContainIt() throws Exception {
+        Path indexed = Files.createTempDirectory("indexed");
+        Path plain = Files.createTempDirectory("plain");
+        write(indexed.resolve(ComponentIndex.COMPONENT_INDEX), "idx.pkg.Indexed\n");
+        // 有索引的根目录中未列入索引的类不会被扫描到:
+        write(indexed.resolve("idx/pkg/Indexed.class"), "");
+        write(indexed.resolve("idx/pkg/NotIndexed.class"), "");
+        write(plain.resolve("idx/pkg/Scanned.class"), "");
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader cl = new URLClassLoader(new URL[] { indexed.toUri().toURL(), plain.toUri().toURL() }, null)) {
+            Thread.currentThread().setContextClassLoader(cl);
+            ComponentIndex index = ComponentIndex.load(cl);
+            assertNotNull(index);
+            Set<String> names = new HashSet<>(index.getClassNames("idx.pkg"));
+            new ResourceResolver("idx.pkg").skipRoots(index::containsRoot).scan(res -> {
+                String name = res.name.replace(File.separatorChar, '/');
+                return name.endsWith(".class") ? name.substring(0, name.length() - 6).replace('/', '.') : null;
+            }, names::add);
+            assertEquals(new HashSet<>(Arrays.asList("idx.pkg.Indexed", "idx.pkg.Scanned")), names);
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    public void testNoIndex() throws Exception {
+        Path plain = Files.createTempDirectory("plain");
+        try (URLClassLoader cl = new URLClassLoader(new URL[] { plain.toUri().toURL() }, null)) {
+            assertNull(ComponentIndex.load(cl));
+        }
+    }
+
+    static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,11 @@
+package myspringframe.io.resourcescan.cycle;
+
+import java.lang.annotation.*;
+
+// 先遍历Second，Second再回到First形成循环，之后才找到Marker:
+@Second
+@Marker
+@Target({ ElementType.TYPE, ElementType.ANNOTATION_TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface First {
+}
@@ -0,0 +1,5 @@
+package myspringframe.io.resourcescan.cycle;
+
+@First
+public class FirstBean {
+}
@@ -0,0 +1,8 @@
+package myspringframe.io.resourcescan.cycle;
+
+import java.lang.annotation.*;
+
+@Target({ ElementType.TYPE, ElementType.ANNOTATION_TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Marker {
+}
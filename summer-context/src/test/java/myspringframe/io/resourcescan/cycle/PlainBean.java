@@ -0,0 +1,5 @@
+package myspringframe.io.resourcescan.cycle;
+
+@Deprecated
+public class PlainBean {
+}
@@ -0,0 +1,9 @@
+package myspringframe.io.resourcescan.cycle;
+
+import java.lang.annotation.*;
+
+@First
+@Target({ ElementType.TYPE, ElementType.ANNOTATION_TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Second {
+}
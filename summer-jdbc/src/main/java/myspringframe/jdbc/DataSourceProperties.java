@@ -0,0 +1,63 @@
+package myspringframe.jdbc;
+
+import myspringframe.annotation.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "summer.datasource")
+public class DataSourceProperties {
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String driverClassName;
+    private final int maximumPoolSize;
+    private final int minimumPoolSize;
+    private final int connectionTimeout;
+
+    public DataSourceProperties(String url, String username, String password, String driverClassName, Integer maximumPoolSize,
+                                Integer minimumPoolSize, Integer connectionTimeout) {
+        List<String> missing = new ArrayList<>();
+        if (url == null) missing.add("url");
+        if (username == null) missing.add("username");
+        if (password == null) missing.add("password");
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing property summer.datasource." + String.join(", summer.datasource.", missing));
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.driverClassName = driverClassName == null || driverClassName.isEmpty() ? null : driverClassName;
+        this.maximumPoolSize = maximumPoolSize == null ? 20 : maximumPoolSize;
+        this.minimumPoolSize = minimumPoolSize == null ? 1 : minimumPoolSize;
+        this.connectionTimeout = connectionTimeout == null ? 30000 : connectionTimeout;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public int getMinimumPoolSize() {
+        return minimumPoolSize;
+    }
+
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+}
@@ -5,7 +5,6 @@ import com.zaxxer.hikari.HikariDataSource;
 import myspringframe.annotation.Autowired;
 import myspringframe.annotation.Bean;
 import myspringframe.annotation.Configuration;
-import myspringframe.annotation.Value;
 import myspringframe.tx.DataSourceTransactionManager;
 import myspringframe.tx.TransactionalBeanPostProcessor;
 import myspringframe.tx.platformTransactionManager;
@@ -16,27 +15,18 @@ import javax.sql.DataSource;
 public class JdbcConfiguration {
 
     @Bean(destroyMethod = "close")
-    DataSource dataSource(
-            // properties:
-            @Value("${summer.datasource.url}") String url, //
-            @Value("${summer.datasource.username}") String username, //
-            @Value("${summer.datasource.password}") String password, //
-            @Value("${summer.datasource.driver-class-name:}") String driver, //
-            @Value("${summer.datasource.maximum-pool-size:20}") int maximumPoolSize, //
-            @Value("${summer.datasource.minimum-pool-size:1}") int minimumPoolSize, //
-            @Value("${summer.datasource.connection-timeout:30000}") int connTimeout //
-    ){
+    DataSource dataSource(DataSourceProperties properties){
         HikariConfig config = new HikariConfig();
         config.setAutoCommit(false);
-        config.setJdbcUrl(url);
-        config.setUsername(username);
-        config.setPassword(password);
-        if (driver != null) {
-            config.setDriverClassName(driver);
+        config.setJdbcUrl(properties.getUrl());
+        config.setUsername(properties.getUsername());
+        config.setPassword(properties.getPassword());
+        if (properties.getDriverClassName() != null) {
+            config.setDriverClassName(properties.getDriverClassName());
         }
-        config.setMaximumPoolSize(maximumPoolSize);
-        config.setMinimumIdle(minimumPoolSize);
-        config.setConnectionTimeout(connTimeout);
+        config.setMaximumPoolSize(properties.getMaximumPoolSize());
+        config.setMinimumIdle(properties.getMinimumPoolSize());
+        config.setConnectionTimeout(properties.getConnectionTimeout());
         return new HikariDataSource(config);
     }
 
@@ -2,10 +2,13 @@ package myspringframe.tx;
 
 import java.lang.annotation.*;
 
-@Target(ElementType.TYPE)
+@Target({ ElementType.TYPE, ElementType.METHOD })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 @Inherited
 public @interface Transactional {
     String value() default "platformTransactionManager";
+
+    // 为空时拦截所有方法，语法见myspringframe.aop.Pointcut:
+    String pointcut() default "";
 }
\ No newline at end of file
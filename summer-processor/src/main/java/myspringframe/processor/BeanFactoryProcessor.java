@@ -0,0 +1,412 @@
+package myspringframe.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 编译期为每个@Component类生成"类名$$SummerBeanFactory"，实现myspringframe.context.GeneratedBeanFactory：
+ * 直接调用构造方法、@Bean方法，直接赋值@Autowired/@Value字段和调用setter。
+ * 生成类与Bean类在同一个包中，private等无法访问的成员对应的方法不生成，由接口的默认方法返回null，运行时仍通过反射处理。
+ */
+@SupportedAnnotationTypes("*")
+public class BeanFactoryProcessor extends AbstractProcessor {
+    public static final String SUFFIX = "$$SummerBeanFactory";
+
+    static final String VALUE_ANNOTATION = "myspringframe.annotation.Value";
+    static final String AUTOWIRED_ANNOTATION = "myspringframe.annotation.Autowired";
+    static final String BEAN_ANNOTATION = "myspringframe.annotation.Bean";
+    static final String CONFIGURATION_ANNOTATION = "myspringframe.annotation.Configuration";
+    static final String CONFIGURATION_PROPERTIES_ANNOTATION = "myspringframe.annotation.ConfigurationProperties";
+    static final String DEPENDENCY = "myspringframe.context.BeanDependency";
+
+    final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ProcessorUtils.collectTypes(roundEnv.getRootElements())) {
+            if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                    || !ProcessorUtils.isComponent(type) || !isInstantiable(type)) {
+                continue;
+            }
+            String binaryName = ProcessorUtils.getBinaryName(processingEnv.getElementUtils(), type);
+            if (this.generated.add(binaryName)) {
+                writeFactory(type, binaryName);
+            }
+        }
+        // 不声明注解，其他处理器可继续处理:
+        return false;
+    }
+
+    // 非private的顶层类或静态嵌套类才能在同一个包中创建:
+    boolean isInstantiable(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (e.getEnclosingElement() instanceof TypeElement && !e.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void writeFactory(TypeElement type, String binaryName) {
+        String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = (pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1)) + SUFFIX;
+        String source = new FactoryWriter(type, pkg, simpleName).write();
+        if (source == null) {
+            return;
+        }
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(pkg.isEmpty() ? simpleName : pkg + "." + simpleName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + simpleName + ": " + e, type);
+        }
+    }
+
+    /**
+     * 生成一个工厂类的源码，所有类型都使用全限定名，不生成import。
+     */
+    class FactoryWriter {
+        final TypeElement type;
+        final String pkg;
+        final String simpleName;
+        final String typeName;
+        final StringBuilder sb = new StringBuilder(4096);
+
+        FactoryWriter(TypeElement type, String pkg, String simpleName) {
+            this.type = type;
+            this.pkg = pkg;
+            this.simpleName = simpleName;
+            this.typeName = erasure(type.asType());
+        }
+
+        // 没有可以生成的部分时返回null:
+        String write() {
+            if (!this.pkg.isEmpty()) {
+                sb.append("package ").append(this.pkg).append(";\n\n");
+            }
+            sb.append("/**\n * Generated by summer-processor for ").append(this.typeName).append(", do not edit.\n */\n");
+            sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            sb.append("public final class ").append(this.simpleName).append(" implements myspringframe.context.GeneratedBeanFactory {\n");
+            int header = sb.length();
+            writeConstructor();
+            writeFactoryMethods();
+            writeInjection();
+            // 没有可以生成的部分时不生成工厂:
+            if (sb.length() == header) {
+                return null;
+            }
+            sb.append("}\n");
+            return sb.toString();
+        }
+
+        void writeConstructor() {
+            ExecutableElement constructor = findConstructor();
+            boolean configuration = ProcessorUtils.hasMetaAnnotation(this.type, CONFIGURATION_ANNOTATION, new HashSet<>());
+            List<String> dependencies = constructor == null ? null : getDependencies(constructor, !configuration);
+            // 无法生成时使用接口的默认方法，由反射创建:
+            if (dependencies == null) {
+                return;
+            }
+            sb.append("\n    static final ").append(DEPENDENCY).append("[] CONSTRUCTOR = ").append(arrayOf(dependencies)).append(";\n");
+            sb.append("\n    @Override\n    public ").append(DEPENDENCY).append("[] getConstructorDependencies() {\n        return CONSTRUCTOR;\n    }\n");
+            sb.append("\n    @Override\n    public Object newInstance(Object[] args) throws Exception {\n");
+            sb.append("        return new ").append(this.typeName).append("(").append(arguments(constructor)).append(");\n");
+            sb.append("    }\n");
+        }
+
+        // 与AnnotationConfigApplicationContext.getSuitableConstructor的选择规则一致:
+        ExecutableElement findConstructor() {
+            List<ExecutableElement> all = ElementFilter.constructorsIn(this.type.getEnclosedElements());
+            List<ExecutableElement> publics = new ArrayList<>();
+            for (ExecutableElement c : all) {
+                if (c.getModifiers().contains(Modifier.PUBLIC)) {
+                    publics.add(c);
+                }
+            }
+            List<ExecutableElement> candidates = publics.isEmpty() ? all : publics;
+            if (candidates.size() != 1 || candidates.get(0).getModifiers().contains(Modifier.PRIVATE)) {
+                return null;
+            }
+            return candidates.get(0);
+        }
+
+        void writeFactoryMethods() {
+            Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+            Map<String, List<String>> dependencies = new LinkedHashMap<>();
+            for (ExecutableElement m : ElementFilter.methodsIn(this.type.getEnclosedElements())) {
+                AnnotationMirror bean = findAnnotation(m, BEAN_ANNOTATION);
+                if (bean == null) {
+                    continue;
+                }
+                Set<Modifier> mod = m.getModifiers();
+                if (mod.contains(Modifier.PRIVATE) || mod.contains(Modifier.ABSTRACT) || mod.contains(Modifier.FINAL)
+                        || m.getReturnType().getKind() != TypeKind.DECLARED && m.getReturnType().getKind() != TypeKind.ARRAY
+                        && m.getReturnType().getKind() != TypeKind.TYPEVAR) {
+                    // 由运行时报告错误:
+                    continue;
+                }
+                String name = (String) getAttribute(bean, "value");
+                if (name.isEmpty()) {
+                    name = m.getSimpleName().toString();
+                }
+                List<String> deps = getDependencies(m, true);
+                if (deps != null && !methods.containsKey(name)) {
+                    methods.put(name, m);
+                    dependencies.put(name, deps);
+                }
+            }
+            if (methods.isEmpty()) {
+                return;
+            }
+            int i = 0;
+            for (List<String> deps : dependencies.values()) {
+                sb.append("\n    static final ").append(DEPENDENCY).append("[] BEAN_").append(i++).append(" = ").append(arrayOf(deps)).append(";\n");
+            }
+            sb.append("\n    @Override\n    public ").append(DEPENDENCY).append("[] getFactoryMethodDependencies(String beanName) {\n");
+            sb.append("        switch (beanName) {\n");
+            i = 0;
+            for (String name : methods.keySet()) {
+                sb.append("            case ").append(literal(name)).append(":\n                return BEAN_").append(i++).append(";\n");
+            }
+            sb.append("            default:\n                return null;\n        }\n    }\n");
+            sb.append("\n    @Override\n    public Object invokeFactoryMethod(Object configuration, String beanName, Object[] args) throws Exception {\n");
+            sb.append("        switch (beanName) {\n");
+            for (Map.Entry<String, ExecutableElement> entry : methods.entrySet()) {
+                ExecutableElement m = entry.getValue();
+                String target = m.getModifiers().contains(Modifier.STATIC) ? this.typeName : "((" + this.typeName + ") configuration)";
+                sb.append("            case ").append(literal(entry.getKey())).append(":\n");
+                sb.append("                return ").append(target).append(".").append(m.getSimpleName()).append("(").append(arguments(m)).append(");\n");
+            }
+            sb.append("            default:\n                throw new IllegalArgumentException(\"No @Bean method for bean: \" + beanName);\n        }\n    }\n");
+        }
+
+        void writeInjection() {
+            List<String> dependencies = new ArrayList<>();
+            List<String> statements = new ArrayList<>();
+            if (!collectInjection(dependencies, statements)) {
+                return;
+            }
+            sb.append("\n    static final ").append(DEPENDENCY).append("[] INJECTION = ").append(arrayOf(dependencies)).append(";\n");
+            sb.append("\n    @Override\n    public ").append(DEPENDENCY).append("[] getInjectionDependencies() {\n        return INJECTION;\n    }\n");
+            sb.append("\n    @Override\n    public void inject(Object bean, Object[] values) throws Exception {\n");
+            for (String statement : statements) {
+                sb.append(statement);
+            }
+            sb.append("    }\n");
+        }
+
+        // 与InjectionPlan的顺序一致：先子类后父类，先字段后方法，存在无法生成的注入点时返回false:
+        boolean collectInjection(List<String> dependencies, List<String> statements) {
+            for (TypeElement c = this.type; c != null; c = getSuperclass(c)) {
+                List<Element> members = new ArrayList<>(ElementFilter.fieldsIn(c.getEnclosedElements()));
+                members.addAll(ElementFilter.methodsIn(c.getEnclosedElements()));
+                for (Element member : members) {
+                    if (findAnnotation(member, VALUE_ANNOTATION) == null && findAnnotation(member, AUTOWIRED_ANNOTATION) == null) {
+                        continue;
+                    }
+                    Set<Modifier> mod = member.getModifiers();
+                    if (mod.contains(Modifier.STATIC) || !isAccessible(member, c)) {
+                        return false;
+                    }
+                    TypeMirror memberType;
+                    if (member.getKind() == ElementKind.FIELD) {
+                        if (mod.contains(Modifier.FINAL)) {
+                            return false;
+                        }
+                        memberType = member.asType();
+                    } else {
+                        List<? extends VariableElement> params = ((ExecutableElement) member).getParameters();
+                        if (params.size() != 1) {
+                            return false;
+                        }
+                        memberType = params.get(0).asType();
+                    }
+                    String dependency = getDependency(member, memberType, true, false);
+                    if (dependency == null) {
+                        return false;
+                    }
+                    int index = dependencies.size();
+                    dependencies.add(dependency);
+                    String target = "((" + erasure(c.asType()) + ") bean)";
+                    String value = "(" + erasure(memberType) + ") values[" + index + "]";
+                    String assign = member.getKind() == ElementKind.FIELD ? target + "." + member.getSimpleName() + " = " + value
+                            : target + "." + member.getSimpleName() + "(" + value + ")";
+                    statements.add("        if (values[" + index + "] != null) {\n            " + assign + ";\n        }\n");
+                }
+            }
+            return true;
+        }
+
+        TypeElement getSuperclass(TypeElement c) {
+            TypeMirror superclass = c.getSuperclass();
+            if (superclass.getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+            TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+            return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+        }
+
+        // 所有参数都能生成依赖时返回依赖表达式，否则返回null:
+        List<String> getDependencies(ExecutableElement executable, boolean allowAutowired) {
+            List<String> dependencies = new ArrayList<>();
+            for (VariableElement param : executable.getParameters()) {
+                String dependency = getDependency(param, param.asType(), allowAutowired, true);
+                if (dependency == null) {
+                    return null;
+                }
+                dependencies.add(dependency);
+            }
+            return dependencies;
+        }
+
+        String getDependency(Element element, TypeMirror type, boolean allowAutowired, boolean allowConfigurationProperties) {
+            if (!isAccessible(type)) {
+                return null;
+            }
+            AnnotationMirror value = findAnnotation(element, VALUE_ANNOTATION);
+            AnnotationMirror autowired = findAnnotation(element, AUTOWIRED_ANNOTATION);
+            String classLiteral = erasure(type) + ".class";
+            if (value != null && autowired != null) {
+                return null;
+            }
+            if (value != null) {
+                return DEPENDENCY + ".value(" + literal((String) getAttribute(value, "value")) + ", " + classLiteral + ")";
+            }
+            if (autowired != null) {
+                if (!allowAutowired) {
+                    return null;
+                }
+                return DEPENDENCY + ".autowired(" + literal((String) getAttribute(autowired, "name")) + ", "
+                        + getAttribute(autowired, "value") + ", " + classLiteral + ")";
+            }
+            if (allowConfigurationProperties && type.getKind() == TypeKind.DECLARED
+                    && findAnnotation(((DeclaredType) type).asElement(), CONFIGURATION_PROPERTIES_ANNOTATION) != null) {
+                return DEPENDENCY + ".configurationProperties(" + classLiteral + ")";
+            }
+            return null;
+        }
+
+        String arguments(ExecutableElement executable) {
+            StringBuilder args = new StringBuilder();
+            List<? extends VariableElement> params = executable.getParameters();
+            for (int i = 0; i < params.size(); i++) {
+                if (i > 0) {
+                    args.append(", ");
+                }
+                args.append("(").append(erasure(params.get(i).asType())).append(") args[").append(i).append("]");
+            }
+            return args.toString();
+        }
+
+        // 成员可从同一个包中的生成类访问:
+        boolean isAccessible(Element member, TypeElement declaring) {
+            Set<Modifier> mod = member.getModifiers();
+            if (mod.contains(Modifier.PRIVATE) || !isAccessible(declaring.asType())) {
+                return false;
+            }
+            return isSamePackage(declaring) || mod.contains(Modifier.PUBLIC);
+        }
+
+        boolean isAccessible(TypeMirror type) {
+            switch (type.getKind()) {
+                case ARRAY:
+                    return isAccessible(((ArrayType) type).getComponentType());
+                case DECLARED:
+                    for (Element e = ((DeclaredType) type).asElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+                        Set<Modifier> mod = e.getModifiers();
+                        if (mod.contains(Modifier.PRIVATE) || !mod.contains(Modifier.PUBLIC) && !isSamePackage(e)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case TYPEVAR:
+                    return isAccessible(processingEnv.getTypeUtils().erasure(type));
+                case ERROR:
+                    return false;
+                default:
+                    return type.getKind().isPrimitive();
+            }
+        }
+
+        boolean isSamePackage(Element e) {
+            return processingEnv.getElementUtils().getPackageOf(e).getQualifiedName().contentEquals(this.pkg);
+        }
+
+        String erasure(TypeMirror type) {
+            return processingEnv.getTypeUtils().erasure(type).toString();
+        }
+    }
+
+    static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    Object getAttribute(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    static String arrayOf(List<String> items) {
+        if (items.isEmpty()) {
+            return "{}";
+        }
+        StringBuilder sb = new StringBuilder("{\n");
+        for (String item : items) {
+            sb.append("            ").append(item).append(",\n");
+        }
+        return sb.append("    }").toString();
+    }
+
+    static String literal(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,86 @@
+package myspringframe.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 编译期收集@Component类并写入META-INF/summer.components，运行时据此跳过classpath扫描。
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+    public static final String COMPONENT_INDEX = "META-INF/summer.components";
+
+    final Set<String> components = new TreeSet<>();
+    final Set<String> processed = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ProcessorUtils.collectTypes(roundEnv.getRootElements())) {
+            String name = ProcessorUtils.getBinaryName(processingEnv.getElementUtils(), type);
+            this.processed.add(name);
+            if (type.getKind() == ElementKind.CLASS && ProcessorUtils.isComponent(type)) {
+                this.components.add(name);
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        // 不声明注解，其他处理器可继续处理:
+        return false;
+    }
+
+    void writeIndex() {
+        Filer filer = processingEnv.getFiler();
+        Set<String> index = readExistingIndex(filer);
+        // 增量编译时保留未重新编译的类:
+        index.removeAll(this.processed);
+        index.addAll(this.components);
+        if (index.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", COMPONENT_INDEX);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String name : index) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + COMPONENT_INDEX + ": " + e);
+        }
+    }
+
+    Set<String> readExistingIndex(Filer filer) {
+        Set<String> index = new TreeSet<>();
+        try {
+            FileObject file = filer.getResource(StandardLocation.CLASS_OUTPUT, "", COMPONENT_INDEX);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        index.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 首次编译时索引不存在
+        }
+        return index;
+    }
+}
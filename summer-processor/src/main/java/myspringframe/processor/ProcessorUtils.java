@@ -0,0 +1,51 @@
+package myspringframe.processor;
+
+import javax.lang.model.element.*;
+import javax.lang.model.util.Elements;
+import java.util.*;
+
+public class ProcessorUtils {
+    public static final String COMPONENT_ANNOTATION = "myspringframe.annotation.Component";
+
+    /**
+     * 判断类型是否直接或通过元注解标注了@Component，与ClassUtils.findAnnotation的查找规则一致。
+     */
+    public static boolean isComponent(TypeElement type) {
+        return hasMetaAnnotation(type, COMPONENT_ANNOTATION, new HashSet<>());
+    }
+
+    static boolean hasMetaAnnotation(Element element, String annotationName, Set<String> visited) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String name = annoType.getQualifiedName().toString();
+            if (name.equals(annotationName)) {
+                return true;
+            }
+            if (name.startsWith("java.lang.annotation.") || !visited.add(name)) {
+                continue;
+            }
+            if (hasMetaAnnotation(annoType, annotationName, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 返回根类型及其所有嵌套类型:
+    public static List<TypeElement> collectTypes(Collection<? extends Element> rootElements) {
+        List<TypeElement> types = new ArrayList<>();
+        Deque<Element> queue = new ArrayDeque<>(rootElements);
+        while (!queue.isEmpty()) {
+            Element e = queue.poll();
+            if (e instanceof TypeElement) {
+                types.add((TypeElement) e);
+                queue.addAll(e.getEnclosedElements());
+            }
+        }
+        return types;
+    }
+
+    public static String getBinaryName(Elements elements, TypeElement type) {
+        return elements.getBinaryName(type).toString();
+    }
+}
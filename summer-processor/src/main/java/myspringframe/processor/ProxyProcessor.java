@@ -0,0 +1,307 @@
+package myspringframe.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 编译期为标注了@Around、@Transactional或@Async的类生成代理类"类名$$SummerProxy"，实现myspringframe.aop.ProxyObject：
+ * 覆写所有可拦截的public方法，没有拦截器链的方法直接调用原始Bean，否则经拦截器链调用。
+ * ProxyResolver优先使用生成的代理类，不再在运行时用ByteBuddy生成。
+ */
+@SupportedAnnotationTypes("*")
+public class ProxyProcessor extends AbstractProcessor {
+    public static final String SUFFIX = "$$SummerProxy";
+
+    static final String[] PROXY_ANNOTATIONS = { "myspringframe.annotation.Around", "myspringframe.tx.Transactional", "myspringframe.annotation.Async" };
+    static final String METHOD = "java.lang.reflect.Method";
+    static final String INTERCEPTOR = "myspringframe.aop.MethodInterceptor";
+
+    final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ProcessorUtils.collectTypes(roundEnv.getRootElements())) {
+            if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT) || type.getModifiers().contains(Modifier.FINAL)
+                    || !isProxied(type) || !isExtensible(type)) {
+                continue;
+            }
+            String binaryName = ProcessorUtils.getBinaryName(processingEnv.getElementUtils(), type);
+            // 生成的代理类继承了代理注解，不再处理:
+            if (!binaryName.endsWith(SUFFIX) && this.generated.add(binaryName)) {
+                writeProxy(type, binaryName);
+            }
+        }
+        // 不声明注解，其他处理器可继续处理:
+        return false;
+    }
+
+    // 类或父类上标注了代理注解，或类中有方法标注了代理注解:
+    boolean isProxied(TypeElement type) {
+        for (TypeElement c = type; c != null; c = getSuperclass(c)) {
+            for (String anno : PROXY_ANNOTATIONS) {
+                if (ProcessorUtils.hasMetaAnnotation(c, anno, new HashSet<>())) {
+                    return true;
+                }
+            }
+        }
+        for (ExecutableElement m : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            for (String anno : PROXY_ANNOTATIONS) {
+                if (BeanFactoryProcessor.findAnnotation(m, anno) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // 非private的顶层类或静态嵌套类，且有非private的无参数构造方法，才能在同一个包中继承:
+    boolean isExtensible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (e.getEnclosingElement() instanceof TypeElement && !e.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+        }
+        for (ExecutableElement c : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    TypeElement getSuperclass(TypeElement c) {
+        TypeMirror superclass = c.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    void writeProxy(TypeElement type, String binaryName) {
+        String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = (pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1)) + SUFFIX;
+        String source = new ProxyWriter(type, pkg, simpleName).write();
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(pkg.isEmpty() ? simpleName : pkg + "." + simpleName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + simpleName + ": " + e, type);
+        }
+    }
+
+    /**
+     * 生成一个代理类的源码，所有类型都使用全限定名，不生成import。
+     */
+    class ProxyWriter {
+        final TypeElement type;
+        final String pkg;
+        final String simpleName;
+        final String typeName;
+        final StringBuilder sb = new StringBuilder(4096);
+
+        ProxyWriter(TypeElement type, String pkg, String simpleName) {
+            this.type = type;
+            this.pkg = pkg;
+            this.simpleName = simpleName;
+            this.typeName = erasure(type.asType());
+        }
+
+        String write() {
+            List<ExecutableElement> methods = findMethods();
+            if (!this.pkg.isEmpty()) {
+                sb.append("package ").append(this.pkg).append(";\n\n");
+            }
+            sb.append("/**\n * Generated by summer-processor for ").append(this.typeName).append(", do not edit.\n */\n");
+            sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            sb.append("public class ").append(this.simpleName).append(" extends ").append(this.typeName).append(" implements myspringframe.aop.ProxyObject {\n");
+            sb.append("\n    static final ").append(METHOD).append("[] METHODS = $$methods();\n");
+            sb.append("\n    private Object $$target;\n");
+            sb.append("    private java.lang.reflect.InvocationHandler $$handler;\n");
+            sb.append("    private ").append(INTERCEPTOR).append("[][] $$chains;\n");
+            writeMethodsArray(methods);
+            writeAccessor("Object", "$$target", "Target");
+            writeAccessor("java.lang.reflect.InvocationHandler", "$$handler", "Handler");
+            writeAccessor(INTERCEPTOR + "[][]", "$$chains", "Chains");
+            for (int i = 0; i < methods.size(); i++) {
+                writeMethod(methods.get(i), i);
+            }
+            writeObjectMethods(methods);
+            sb.append("}\n");
+            return sb.toString();
+        }
+
+        // 与ProxyResolver.isInterceptable一致，子类覆写的方法只保留一个:
+        List<ExecutableElement> findMethods() {
+            Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+            for (ExecutableElement m : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(this.type))) {
+                Set<Modifier> mod = m.getModifiers();
+                TypeElement declaring = (TypeElement) m.getEnclosingElement();
+                if (!mod.contains(Modifier.PUBLIC) || mod.contains(Modifier.STATIC) || mod.contains(Modifier.FINAL)
+                        || declaring.getQualifiedName().contentEquals("java.lang.Object") || !isAccessible(m)) {
+                    continue;
+                }
+                String key = m.getSimpleName() + "(" + parameterTypes(m) + ")";
+                ExecutableElement existing = methods.get(key);
+                // 接口中的抽象方法由类中的实现代替:
+                if (existing == null || existing.getModifiers().contains(Modifier.ABSTRACT)) {
+                    methods.put(key, m);
+                }
+            }
+            List<ExecutableElement> result = new ArrayList<>(methods.values());
+            result.removeIf(m -> m.getModifiers().contains(Modifier.ABSTRACT));
+            return result;
+        }
+
+        // 按定义时的参数类型查找，与运行时getMethods()返回的方法一致:
+        void writeMethodsArray(List<ExecutableElement> methods) {
+            sb.append("\n    /**\n     * 按下标排列的被覆写方法，ProxyResolver按此顺序设置拦截器链。\n     */\n");
+            sb.append("    public static ").append(METHOD).append("[] $$methods() {\n");
+            sb.append("        try {\n            return new ").append(METHOD).append("[] {\n");
+            for (ExecutableElement m : methods) {
+                sb.append("                ").append(this.typeName).append(".class.getMethod(").append(BeanFactoryProcessor.literal(m.getSimpleName().toString()));
+                for (VariableElement p : m.getParameters()) {
+                    sb.append(", ").append(erasure(p.asType())).append(".class");
+                }
+                sb.append("),\n");
+            }
+            sb.append("            };\n        } catch (NoSuchMethodException e) {\n            throw new IllegalStateException(e);\n        }\n    }\n");
+        }
+
+        void writeAccessor(String fieldType, String field, String property) {
+            sb.append("\n    @Override\n    public ").append(fieldType).append(" $$get").append(property).append("() {\n        return this.").append(field).append(";\n    }\n");
+            sb.append("\n    @Override\n    public void $$set").append(property).append("(").append(fieldType).append(" value) {\n        this.").append(field).append(" = value;\n    }\n");
+        }
+
+        void writeMethod(ExecutableElement m, int index) {
+            // 继承自泛型父类的方法按在本类中的实际类型覆写，编译器生成桥接方法:
+            ExecutableType member = (ExecutableType) processingEnv.getTypeUtils().asMemberOf((DeclaredType) this.type.asType(), m);
+            String returnType = erasure(member.getReturnType());
+            boolean isVoid = member.getReturnType().getKind() == TypeKind.VOID;
+            StringBuilder params = new StringBuilder();
+            StringBuilder args = new StringBuilder();
+            List<? extends TypeMirror> parameters = member.getParameterTypes();
+            for (int i = 0; i < parameters.size(); i++) {
+                if (i > 0) {
+                    params.append(", ");
+                    args.append(", ");
+                }
+                params.append(erasure(parameters.get(i))).append(" p").append(i);
+                args.append("p").append(i);
+            }
+            String call = m.getSimpleName() + "(" + args + ")";
+            sb.append("\n    @Override\n    public ").append(returnType).append(" ").append(m.getSimpleName()).append("(").append(params).append(")");
+            List<? extends TypeMirror> thrown = member.getThrownTypes();
+            for (int i = 0; i < thrown.size(); i++) {
+                sb.append(i == 0 ? " throws " : ", ").append(erasure(thrown.get(i)));
+            }
+            sb.append(" {\n");
+            sb.append("        ").append(INTERCEPTOR).append("[] chain = this.$$chains[").append(index).append("];\n");
+            // 没有拦截器链的方法直接调用原始Bean:
+            sb.append("        if (chain == null) {\n            ");
+            sb.append(isVoid ? "" : "return ").append("((").append(this.typeName).append(") this.$$target).").append(call).append(";\n");
+            sb.append(isVoid ? "            return;\n" : "").append("        }\n");
+            String forward = isVoid
+                    ? "$$t -> {\n            ((" + this.typeName + ") $$t)." + call + ";\n            return null;\n        }"
+                    : "$$t -> ((" + this.typeName + ") $$t)." + call;
+            sb.append("        ").append(isVoid ? "" : "return (" + returnType + ") ").append("myspringframe.aop.ProxyResolver.invokeChain(this.$$target, METHODS[")
+                    .append(index).append("], new Object[] {").append(args.length() == 0 ? "" : " " + args + " ").append("}, ").append(forward).append(", chain);\n");
+            sb.append("    }\n");
+        }
+
+        // 未被覆写的Object方法与运行时生成的代理类一样直接调用原始Bean:
+        void writeObjectMethods(List<ExecutableElement> methods) {
+            Set<String> overridden = new HashSet<>();
+            for (ExecutableElement m : methods) {
+                overridden.add(m.getSimpleName() + "(" + parameterTypes(m) + ")");
+            }
+            for (ExecutableElement m : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(this.type))) {
+                String name = m.getSimpleName().toString();
+                String key = name + "(" + parameterTypes(m) + ")";
+                if (!((TypeElement) m.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object") || overridden.contains(key)
+                        || m.getModifiers().contains(Modifier.FINAL) || !m.getModifiers().contains(Modifier.PUBLIC)) {
+                    continue;
+                }
+                String params = m.getParameters().isEmpty() ? "" : "Object p0";
+                String args = m.getParameters().isEmpty() ? "" : "p0";
+                sb.append("\n    @Override\n    public ").append(erasure(m.getReturnType())).append(" ").append(name).append("(").append(params).append(") {\n");
+                sb.append("        return this.$$target.").append(name).append("(").append(args).append(");\n    }\n");
+            }
+        }
+
+        String parameterTypes(ExecutableElement m) {
+            StringBuilder types = new StringBuilder();
+            for (VariableElement p : m.getParameters()) {
+                types.append(erasure(p.asType())).append(',');
+            }
+            return types.toString();
+        }
+
+        // 参数、返回值和异常类型都可从同一个包中访问:
+        boolean isAccessible(ExecutableElement m) {
+            if (!isAccessible(m.getReturnType())) {
+                return false;
+            }
+            for (VariableElement p : m.getParameters()) {
+                if (!isAccessible(p.asType())) {
+                    return false;
+                }
+            }
+            for (TypeMirror t : m.getThrownTypes()) {
+                if (!isAccessible(t)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isAccessible(TypeMirror type) {
+            switch (type.getKind()) {
+                case ARRAY:
+                    return isAccessible(((ArrayType) type).getComponentType());
+                case DECLARED:
+                    for (Element e = ((DeclaredType) type).asElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+                        Set<Modifier> mod = e.getModifiers();
+                        if (mod.contains(Modifier.PRIVATE) || !mod.contains(Modifier.PUBLIC) && !isSamePackage(e)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case TYPEVAR:
+                    return isAccessible(processingEnv.getTypeUtils().erasure(type));
+                case VOID:
+                    return true;
+                case ERROR:
+                    return false;
+                default:
+                    return type.getKind().isPrimitive();
+            }
+        }
+
+        boolean isSamePackage(Element e) {
+            return processingEnv.getElementUtils().getPackageOf(e).getQualifiedName().contentEquals(this.pkg);
+        }
+
+        String erasure(TypeMirror type) {
+            return processingEnv.getTypeUtils().erasure(type).toString();
+        }
+    }
+}
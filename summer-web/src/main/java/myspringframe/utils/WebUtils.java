@@ -1,16 +1,18 @@
 package myspringframe.utils;
 
-import myspringframe.Utils.ClassPathUtils;
-import myspringframe.Utils.YamlUtils;
 import myspringframe.context.ApplicationContext;
 import myspringframe.context.ApplicationContextUtils;
+import myspringframe.io.propertyresolver.MapPropertySource;
 import myspringframe.io.propertyresolver.PropertyResolver;
+import myspringframe.io.propertyresolver.PropertySource;
+import myspringframe.io.propertyresolver.ResourcePropertySource;
 import myspringframe.webmvc.DispatcherServlet;
 import myspringframe.webmvc.FilterRegistrationBean;
 
 import javax.servlet.*;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class WebUtils {
@@ -18,29 +20,32 @@ public class WebUtils {
 
     static final String CONFIG_APP_YAML = "/application.yml";
     static final String CONFIG_APP_PROP = "/application.properties";
+    static final String CONFIG_LOCATION = "summer.config.location";
 
     public static PropertyResolver createPropertyResolver(){
-        final Properties props = new Properties();
-        try {
-            Map<String, Object> ymlMap = YamlUtils.loadYamlAsPlainMap(CONFIG_APP_YAML);
-            for (String key : ymlMap.keySet()){
-                Object value = ymlMap.get(key);
-                if (value instanceof String){
-                    String strValue = (String) value;
-                    props.put(key,strValue);
+        // 优先级从低到高: 环境变量 < 系统属性 < application.yml < application.properties < summer.config.location指定的文件:
+        List<PropertySource> sources = new ArrayList<>();
+        sources.add(MapPropertySource.systemEnvironment());
+        sources.add(MapPropertySource.systemProperties());
+        sources.add(ResourcePropertySource.classPath(CONFIG_APP_YAML));
+        sources.add(ResourcePropertySource.classPath(CONFIG_APP_PROP));
+        String location = System.getProperty(CONFIG_LOCATION);
+        if (location != null) {
+            for (String path : location.split(",")) {
+                if (!path.trim().isEmpty()) {
+                    sources.add(ResourcePropertySource.file(Paths.get(path.trim())));
                 }
             }
         }
-        catch (UncheckedIOException e){
-            if (e.getCause() instanceof FileNotFoundException) {
-                // try load application.properties:
-                ClassPathUtils.readInputStream(CONFIG_APP_PROP, (input) -> {
-                    props.load(input);
-                    return true;
-                });
+        PropertyResolver propertyResolver = new PropertyResolver(sources, true);
+        if (propertyResolver.getProperty("${summer.config.watch:false}", boolean.class)) {
+            try {
+                propertyResolver.startWatching();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
-        return new PropertyResolver(props);
+        return propertyResolver;
     }
 
     public static void registerDispatcherServlet(ServletContext servletContext,PropertyResolver propertyResolver){
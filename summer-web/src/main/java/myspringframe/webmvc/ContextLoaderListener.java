@@ -13,11 +13,14 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 
 public class ContextLoaderListener implements ServletContextListener {
+    PropertyResolver propertyResolver;
+
     @Override
     public void contextInitialized(ServletContextEvent sce) {
         ServletContext servletContext = sce.getServletContext();
         WebMvcConfiguration.setServletContext(servletContext);
         PropertyResolver propertyResolver = WebUtils.createPropertyResolver();
+        this.propertyResolver = propertyResolver;
         String encoding = propertyResolver.getProperty("${summer.web.character-encoding:UTF-8}");
         servletContext.setRequestCharacterEncoding(encoding);
         servletContext.setResponseCharacterEncoding(encoding);
@@ -38,6 +41,13 @@ public class ContextLoaderListener implements ServletContextListener {
             ApplicationContext applicationContext = (ApplicationContext) object;
             applicationContext.close();
         }
+        if (this.propertyResolver != null) {
+            try {
+                this.propertyResolver.stopWatching();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     public AnnotationConfigApplicationContext createApplicationContext(String configClassName,PropertyResolver propertyResolver) throws
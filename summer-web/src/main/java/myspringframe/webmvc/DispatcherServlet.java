@@ -60,18 +60,16 @@ public class DispatcherServlet extends HttpServlet {
         // scan @Controller and @RestController:
         for (BeanDefinition def : ((ConfigurableApplicationContext) this.applicationContext).findBeanDefinitions(Object.class)) {
             Class<?> beanClass = def.getBeanClass();
-            Object bean = def.getRequiredInstance();
-            Controller controller = beanClass.getAnnotation(Controller.class);
-            RestController restController = beanClass.getAnnotation(RestController.class);
+            Controller controller = ClassUtils.findAnnotation(beanClass, Controller.class);
+            RestController restController = ClassUtils.findAnnotation(beanClass, RestController.class);
+            if (controller == null && restController == null) {
+                // 只获取Controller，不提前创建@Lazy或非单例的Bean:
+                continue;
+            }
             if (controller != null && restController != null) {
                 throw new ServletException("Found @Controller and @RestController on class: " + beanClass.getName());
             }
-            if (controller != null) {
-                addController(false, def.getName(), bean);
-            }
-            if (restController != null) {
-                addController(true, def.getName(), bean);
-            }
+            addController(restController != null, def.getName(), this.applicationContext.getBean(def.getName()));
         }
     }
     void addController(boolean isRest, String name, Object instance) throws ServletException {